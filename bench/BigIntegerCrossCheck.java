@@ -0,0 +1,297 @@
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * The BigIntegerCrossCheck program checks the big number algorithms against java.math.BigInteger on operands chosen around the sizes
+ * where the code changes method: the Karatsuba and Toom-3 thresholds and the unbalanced split of LimbMultiplication, and the
+ * Burnikel-Ziegler cutoff of LimbDivision, and the exact division by 3 of Toom-3 on quotients whose limbs sit right at the points where
+ * its borrow changes. The conversions of RadixConversion are checked the same way, around the sizes where the decimal divide and conquer
+ * stops splitting (SMALL_DIGITS and SMALL_LIMBS) and splits (18 * 2^k digits), on numbers with whole chunks of zeros inside them
+ * (which the lower halves must be padded back to), on zero and on hexadecimal digits across the limb boundaries. Every size is tried with random limbs, with limbs that are all ones (so every carry and borrow ripples)
+ * and with sparse limbs, under every combination of signs. The first few mismatches are printed with their operation and sizes,
+ * and the program exits with status 1 if there is any, so it can guard a change to those classes.
+ * Run it with "[--seed S] [--rounds N]", N being the number of times every size is tried with random operands.
+ *
+ * @author Yuxin Xiang
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public class BigIntegerCrossCheck {
+	private static final int MAX_REPORTED = 10;
+	private static final long[] BY3_LIMBS = {0, 1, -1, 0x5555555555555555L, 0x5555555555555556L, 0x5555555555555557L,
+			0xAAAAAAAAAAAAAAAAL, 0xAAAAAAAAAAAAAAABL, 0xAAAAAAAAAAAAAAACL};    // the limbs of a quotient around the borrow thresholds
+
+	private static long checks, mismatches;
+
+
+	public static void main(String[] args) {
+		long seed = 1;
+		int rounds = 3;
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("--seed") && i + 1 < args.length) {
+				seed = Long.parseLong(args[++i]);
+			}
+			else if (args[i].equals("--rounds") && i + 1 < args.length) {
+				rounds = Integer.parseInt(args[++i]);
+			}
+		}
+		Random random = new Random(seed);
+		checkMultiplication(random, rounds);
+		checkDivisionBy3(random, rounds);
+		checkDivision(random, rounds);
+		checkConversion(random, rounds);
+		System.out.printf("%d checks, %d mismatches%n", checks, mismatches);
+		if (mismatches > 0) {
+			System.exit(1);
+		}
+	}
+
+
+	/**
+	 * This method is to check the multiplication on every pair of sizes around the thresholds, balanced and unbalanced.
+	 * @param random the source of the operands
+	 * @param rounds the number of random operands for every pair of sizes
+	 */
+	private static void checkMultiplication(Random random, int rounds) {
+		int k = LimbMultiplication.KARATSUBA_THRESHOLD, t = LimbMultiplication.TOOM3_THRESHOLD;
+		int[] shorter = {1, k - 1, k, k + 1, 2 * k + 1, t - 1, t, t + 1, t + 2, 3 * t + 1, 9 * t + 2};
+		for (int yLimbs : shorter) {
+			int[] longer = {yLimbs, yLimbs + 1, 2 * yLimbs - 1, 2 * yLimbs, 2 * yLimbs + 1, 3 * yLimbs + 7};   // 2y is where the unbalanced split starts
+			for (int xLimbs : longer) {
+				for (int round = 0; round < rounds + 2; round++) {
+					BigInteger x = operand(random, xLimbs, round), y = operand(random, yLimbs, round);
+					check("*", x, y, x.multiply(y));
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * This method is to check the exact division by 3 of Toom-3 on multiples of 3 whose quotients mix the limbs around its borrow thresholds.
+	 * @param random the source of the quotients
+	 * @param rounds the number of quotients for every length
+	 */
+	private static void checkDivisionBy3(Random random, int rounds) {
+		for (int limbs = 1; limbs <= 8; limbs++) {
+			for (int round = 0; round < 50 * rounds; round++) {
+				long[] q = new long[limbs];
+				for (int i = 0; i < limbs; i++) {
+					q[i] = (random.nextInt(4) == 0) ? random.nextLong() : BY3_LIMBS[random.nextInt(BY3_LIMBS.length)];
+				}
+				BigInteger quotient = toBigInteger(LimbArithmetic.trim(q));
+				checks++;
+				try {
+					BigInteger result = toBigInteger(LimbMultiplication.divideExactBy3(toLimbs(quotient.multiply(BigInteger.valueOf(3)))));
+					if (!result.equals(quotient)) {
+						report("divideExactBy3", quotient, null);
+					}
+				}
+				catch (RuntimeException e) {
+					report("divideExactBy3 (" + e + ")", quotient, null);
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * This method is to check the division and the remainder on divisors and dividends around the Burnikel-Ziegler cutoff,
+	 * including remainders of one less than the divisor and divisors whose top limb has few bits (so they are shifted the furthest).
+	 * @param random the source of the operands
+	 * @param rounds the number of random operands for every pair of sizes
+	 */
+	private static void checkDivision(Random random, int rounds) {
+		int bz = LimbDivision.BURNIKEL_ZIEGLER_THRESHOLD, offset = LimbDivision.BURNIKEL_ZIEGLER_OFFSET;
+		int[] divisors = {1, 2, bz - 1, bz, bz + 1, 2 * bz + 3, 5 * bz + 1};
+		for (int yLimbs : divisors) {
+			int[] dividends = {yLimbs, yLimbs + offset - 1, yLimbs + offset, yLimbs + offset + 1, 2 * yLimbs + 1, 3 * yLimbs + offset, 7 * yLimbs + 5};
+			for (int xLimbs : dividends) {
+				for (int round = 0; round < rounds + 2; round++) {
+					BigInteger x = operand(random, xLimbs, round), y = operand(random, yLimbs, round);
+					if (round == 1) {    // a divisor with a single bit in its top limb
+						y = y.shiftRight(63).max(BigInteger.ONE);
+					}
+					if (y.signum() == 0) {
+						continue;
+					}
+					if (round == 2) {    // the biggest remainder there is, so the quotient is corrected as far as it can be
+						BigInteger q = x.divide(y);
+						x = q.multiply(y).add(y.abs().subtract(BigInteger.ONE).multiply(BigInteger.valueOf(x.signum() < 0 ? -1 : 1)));
+					}
+					if (round == 3 && xLimbs > yLimbs) {    // a quotient of all ones and the biggest remainder, so the top of every block reaches the divisor
+						BigInteger q = BigInteger.ONE.shiftLeft((xLimbs - yLimbs) * LimbArithmetic.LIMB_BITS).subtract(BigInteger.ONE);
+						x = q.multiply(y.abs()).add(y.abs().subtract(BigInteger.ONE)).multiply(BigInteger.valueOf(x.signum() < 0 ? -1 : 1));
+					}
+					check("/", x, y, x.divide(y));
+					check("%", x, y, x.remainder(y));
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * This method is to check the parsing and the rendering of decimal and hexadecimal digits around the sizes where the divide and conquer changes.
+	 * @param random the source of the digits
+	 * @param rounds the number of random numbers for every size
+	 */
+	private static void checkConversion(Random random, int rounds) {
+		for (String zero : new String[] {"0", "000", "-0"}) {
+			checkConversion(zero, 10);
+			checkConversion(zero, 16);
+		}
+		List<Integer> lengths = new ArrayList<>(List.of(RadixConversion.SMALL_DIGITS - 1, RadixConversion.SMALL_DIGITS, RadixConversion.SMALL_DIGITS + 1));
+		for (int split = 18; split <= 32 * RadixConversion.SMALL_DIGITS; split *= 2) {    // the digits of 10^(18 * 2^k), where the parsing splits
+			lengths.addAll(List.of(split - 1, split, split + 1));
+		}
+		for (int digits : lengths) {
+			for (int round = 0; round < rounds; round++) {
+				checkConversion(decimal(random, digits, round), 10);
+			}
+			checkConversion("1" + "0".repeat(digits - 1), 10);    // a power of ten, which is all zeros below the top digit
+			checkConversion("9".repeat(digits), 10);
+			checkConversion("-" + "0".repeat(digits % 4) + decimal(random, digits, 1), 10);    // leading zeros and a sign
+		}
+		int small = RadixConversion.SMALL_LIMBS;
+		for (int limbs : new int[] {1, small - 1, small, small + 1, 2 * small, 2 * small + 1, 8 * small + 3}) {
+			for (int round = 0; round < rounds + 2; round++) {
+				BigInteger x = operand(random, limbs, round);
+				checkConversion(x.toString(10), 10);
+				checkConversion(x.toString(16), 16);
+				checkConversion(x.toString(16).toUpperCase(), 16);
+			}
+		}
+		for (int digits = 1; digits <= 40; digits++) {    // across the 16 digits of a limb
+			checkConversion(new BigInteger(4 * digits, random).setBit(4 * digits - 1).toString(16), 16);
+		}
+	}
+
+
+	/**
+	 * This method is to make a string of decimal digits with no leading zero.
+	 * @param random the source of the digits
+	 * @param digits the number of digits
+	 * @param kind 1 for whole chunks of 18 zeros between random digits, anything else for random digits
+	 * @return the digits
+	 */
+	private static String decimal(Random random, int digits, int kind) {
+		StringBuilder sb = new StringBuilder(digits).append((char) ('1' + random.nextInt(9)));
+		while (sb.length() < digits) {
+			boolean zeros = kind == 1 && random.nextInt(3) == 0;
+			for (int i = 0; i < 18 && sb.length() < digits; i++) {
+				sb.append(zeros ? '0' : (char) ('0' + random.nextInt(10)));
+			}
+		}
+		return sb.toString();
+	}
+
+
+	/**
+	 * This method is to parse digits in a base and render them again in binary and in the base, comparing both with BigInteger.
+	 * @param digits the digits, with an optional negative sign
+	 * @param radix the base, 10 or 16
+	 */
+	private static void checkConversion(String digits, int radix) {
+		checks++;
+		BigInteger expected = new BigInteger(digits, radix);
+		try {
+			BigBinary number = BigBinary.parse(digits, radix);
+			if (!number.toString().equals(expected.toString(2)) || !number.toString(radix).equals(expected.toString(radix))) {
+				report("radix " + radix, expected, null);
+			}
+		}
+		catch (RuntimeException e) {
+			report("radix " + radix + " (" + e + ")", expected, null);
+		}
+	}
+
+
+	/**
+	 * This method is to make an operand of an exact number of limbs with a random sign.
+	 * @param random the source of the limbs
+	 * @param limbs the number of limbs
+	 * @param kind 0 for all ones, 1 for sparse limbs, anything else for random limbs
+	 * @return the operand
+	 */
+	private static BigInteger operand(Random random, int limbs, int kind) {
+		int bits = limbs * LimbArithmetic.LIMB_BITS;
+		BigInteger value;
+		if (kind == 0) {
+			value = BigInteger.ONE.shiftLeft(bits).subtract(BigInteger.ONE);
+		}
+		else if (kind == 1) {
+			value = BigInteger.ONE.shiftLeft(bits - 1);
+			for (int i = 0; i < 4; i++) {
+				value = value.setBit(random.nextInt(bits));
+			}
+		}
+		else {
+			value = new BigInteger(bits, random).setBit(bits - 1);
+		}
+		return random.nextBoolean() ? value.negate() : value;
+	}
+
+
+	/**
+	 * This method is to carry out an operation on BigBinary and compare its result with the one of BigInteger.
+	 * @param symbol the symbol of the operation
+	 * @param x the operand X
+	 * @param y the operand Y
+	 * @param expected the result of BigInteger
+	 */
+	private static void check(String symbol, BigInteger x, BigInteger y, BigInteger expected) {
+		checks++;
+		try {
+			BigBinary result = Operation.fromSymbol(symbol).apply(BigBinary.parse(x.toString(2)), BigBinary.parse(y.toString(2)));
+			if (!result.toString().equals(expected.toString(2))) {
+				report(symbol, x, y);
+			}
+		}
+		catch (RuntimeException e) {    // e.g., an index out of bounds, which is as wrong as a wrong result
+			report(symbol + " (" + e + ")", x, y);
+		}
+	}
+
+
+	/**
+	 * This method is to get the trimmed limbs of a non-negative number.
+	 * @param value the number
+	 * @return its limbs, lowest limb first
+	 */
+	private static long[] toLimbs(BigInteger value) {
+		BigBinary number = BigBinary.parse(value.toString(2));
+		return Arrays.copyOf(number.limbs(), number.limbCount());
+	}
+
+
+	/**
+	 * This method is to get the number held by limbs.
+	 * @param limbs the limbs, lowest limb first
+	 * @return the non-negative number
+	 */
+	private static BigInteger toBigInteger(long[] limbs) {
+		BigInteger value = BigInteger.ZERO;
+		for (int i = limbs.length - 1; i >= 0; i--) {
+			value = value.shiftLeft(LimbArithmetic.LIMB_BITS).or(new BigInteger(Long.toUnsignedString(limbs[i])));
+		}
+		return value;
+	}
+
+
+	/**
+	 * This method is to count a mismatch and print the first few of them.
+	 * @param what the operation or conversion that went wrong
+	 * @param x the operand X
+	 * @param y the operand Y, null if there is none
+	 */
+	private static void report(String what, BigInteger x, BigInteger y) {
+		if (++mismatches <= MAX_REPORTED) {
+			System.out.printf("MISMATCH %s on %d-bit X (sign %d) and %s%n", what, x.bitLength(), x.signum(),
+					(y == null) ? "no Y" : y.bitLength() + "-bit Y (sign " + y.signum() + ")");
+		}
+	}
+}
@@ -0,0 +1,304 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * The CalculatorBenchmark program measures the hot paths of the calculator: the single-bit functions of BitOperations (gate-level and compiled),
+ * the end-to-end arithmetic, bitwise operations and comparison of BigBinary and the in-place additions of BinaryAccumulator across operand sizes from 8 bits to 10M bits (including mixed lengths),
+ * and the parse, validate, strip and render steps around them (including the conversions to and from decimal and hexadecimal). Every benchmark is warmed up first, then timed over several iterations,
+ * and reports the time and the bytes allocated per operation.
+ * It stands in for a JMH module, which needs a Maven or Gradle build that this repository does not have. Like the forks of JMH, every benchmark runs in a JVM of its own
+ * (the same java with the same options), so what the JIT compiler learnt from one benchmark does not shape the code measured by the next.
+ * The results go into a volatile field instead of a Blackhole, the operation is read from a volatile field every time as the state of JMH is read from a field,
+ * so it cannot be hoisted out of the loop, and the bytes come from the allocation counter of the thread instead of the GC profiler.
+ * Run it with "--baseline bench/baseline.txt" to print the change against the saved baseline numbers next to every result.
+ *
+ * @author Yuxin Xiang
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public class CalculatorBenchmark {
+	private static final int WARMUP_ITERATIONS = 5;
+	private static final int MEASURED_ITERATIONS = 5;
+	private static final long ITERATION_NANOS = 200_000_000L;    // the length of a single iteration
+	private static final int[] SIZES = {8, 64, 1_024, 65_536, 1_048_576, 10_000_000};   // the operand sizes in bits
+	private static final String BIT_GROUP = "bit";    // the group of the single-bit functions, the other groups being the operand sizes
+
+	private static final com.sun.management.ThreadMXBean THREADS =
+			(com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+	private static volatile long sink;    // every result ends up here so the work cannot be optimised away
+	private static volatile Body current;    // read again for every operation, so the JIT compiler cannot hoist an operation on the same operands out of the loop
+
+
+	/**
+	 * The Body interface is a single operation to measure, returning a value that depends on its result.
+	 */
+	interface Body {
+		long run();
+	}
+
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		Map<String, double[]> baseline = new HashMap<>();
+		int maxBits = SIZES[SIZES.length - 1];
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("--baseline") && i + 1 < args.length) {
+				baseline = readBaseline(Paths.get(args[++i]));
+			}
+			else if (args[i].equals("--max-bits") && i + 1 < args.length) {
+				maxBits = Integer.parseInt(args[++i]);
+			}
+			else if (args[i].equals("--run") && i + 1 < args.length) {    // in the JVM started for a single benchmark
+				runForked(args[++i]);
+				return;
+			}
+		}
+
+		System.out.println("# " + System.getProperty("java.vm.name") + " " + System.getProperty("java.version")
+				+ ", " + Runtime.getRuntime().availableProcessors() + " cores, a JVM for every benchmark");
+		System.out.printf("# %-40s %16s %16s%s%n", "benchmark", "ns/op", "B/op", baseline.isEmpty() ? "" : "   vs baseline");
+		List<String> groups = new ArrayList<>();
+		groups.add(BIT_GROUP);
+		for (int size : SIZES) {
+			if (size <= maxBits) {
+				groups.add(Integer.toString(size));
+			}
+		}
+		for (String group : groups) {
+			for (Benchmark benchmark : benchmarks(group)) {
+				double[] result = fork(benchmark.name);
+				double[] previous = baseline.get(benchmark.name);
+				String change = (previous == null) ? "" : String.format("   %+6.1f%%", 100.0 * (result[0] - previous[0]) / previous[0]);
+				System.out.printf("%-42s %16.1f %16.1f%s%n", benchmark.name, result[0], result[1], change);
+			}
+		}
+	}
+
+
+	/**
+	 * This method is to measure a single benchmark in a new JVM, started with the same java, class path and options as this one.
+	 * @param name the name of the benchmark
+	 * @return the average time in nanoseconds and the average bytes allocated per operation
+	 * @throws IOException if the JVM cannot be started or the benchmark fails
+	 * @throws InterruptedException if the benchmark is interrupted while waiting for the JVM
+	 */
+	private static double[] fork(String name) throws IOException, InterruptedException {
+		List<String> command = new ArrayList<>();
+		command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+		command.addAll(ManagementFactory.getRuntimeMXBean().getInputArguments());
+		command.addAll(List.of("-cp", System.getProperty("java.class.path"), "CalculatorBenchmark", "--run", name));
+		Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+		String line;
+		try (BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.US_ASCII))) {
+			line = out.readLine();
+		}
+		if (process.waitFor() != 0 || line == null) {
+			throw new IOException("The benchmark " + name + " failed.");
+		}
+		String[] fields = line.trim().split("\\s+");
+		return new double[] {Double.parseDouble(fields[0]), Double.parseDouble(fields[1])};
+	}
+
+
+	/**
+	 * This method is to measure a single benchmark in the JVM started for it and print its time and bytes per operation for the parent to read.
+	 * @param name the name of the benchmark
+	 */
+	private static void runForked(String name) {
+		String group = (name.startsWith("bit.") || name.startsWith("byte.")) ? BIT_GROUP : name.substring(name.lastIndexOf('.') + 1);
+		for (Benchmark benchmark : benchmarks(group)) {
+			if (benchmark.name.equals(name)) {
+				double[] result = measure(benchmark.body);
+				System.out.printf("%.1f %.1f%n", result[0], result[1]);
+				return;
+			}
+		}
+		throw new IllegalArgumentException("Unknown benchmark " + name);
+	}
+
+
+	/**
+	 * This method is to list the benchmarks of a group, setting up the operands of that group only.
+	 * @param group BIT_GROUP for the single-bit functions, otherwise the operand size in bits
+	 * @return the benchmarks in the order to run them
+	 */
+	private static List<Benchmark> benchmarks(String group) {
+		List<Benchmark> list = new ArrayList<>();
+		if (!group.equals(BIT_GROUP)) {
+			int size = Integer.parseInt(group);
+			sizeBenchmarks(list, size, new Random(size));
+			return list;
+		}
+		BitOperations bo = new BitOperations();
+		int[] bits = new int[1024];    // random input bits, so the branches in the gates are not all predicted
+		Random random = new Random(42);
+		for (int i = 0; i < bits.length; i++) {
+			bits[i] = random.nextInt(2);
+		}
+		int[] index = new int[1];
+		list.add(new Benchmark("bit.addBit", () -> { int i = index[0]++ & 1021; return bo.addBit(bits[i], bits[i + 1], bits[i + 2]); }));
+		list.add(new Benchmark("bit.carryBit", () -> { int i = index[0]++ & 1021; return bo.carryBit(bits[i], bits[i + 1], bits[i + 2]); }));
+		list.add(new Benchmark("bit.subBit", () -> { int i = index[0]++ & 1021; return bo.subBit(bits[i], bits[i + 1], bits[i + 2]); }));
+		list.add(new Benchmark("bit.borrowBit", () -> { int i = index[0]++ & 1021; return bo.borrowBit(bits[i], bits[i + 1], bits[i + 2]); }));
+		list.add(new Benchmark("bit.lessThan", () -> { int i = index[0]++ & 1021; return bo.lessThan(bits[i], bits[i + 1], bits[i + 2]); }));
+		CompiledBitOperations co = new CompiledBitOperations();
+		list.add(new Benchmark("bit.compiled.addBit", () -> { int i = index[0]++ & 1021; return co.addBit(bits[i], bits[i + 1], bits[i + 2]); }));
+		list.add(new Benchmark("bit.compiled.carryBit", () -> { int i = index[0]++ & 1021; return co.carryBit(bits[i], bits[i + 1], bits[i + 2]); }));
+		list.add(new Benchmark("bit.compiled.subBit", () -> { int i = index[0]++ & 1021; return co.subBit(bits[i], bits[i + 1], bits[i + 2]); }));
+		list.add(new Benchmark("bit.compiled.borrowBit", () -> { int i = index[0]++ & 1021; return co.borrowBit(bits[i], bits[i + 1], bits[i + 2]); }));
+		list.add(new Benchmark("bit.compiled.lessThan", () -> { int i = index[0]++ & 1021; return co.lessThan(bits[i], bits[i + 1], bits[i + 2]); }));
+		list.add(new Benchmark("byte.compiled.addByte", () -> { int i = index[0]++ & 1023; return co.addByte(i & 0xFF, (i * 37) & 0xFF, bits[i]); }));
+		list.add(new Benchmark("byte.compiled.subByte", () -> { int i = index[0]++ & 1023; return co.subByte(i & 0xFF, (i * 37) & 0xFF, bits[i]); }));
+		return list;
+	}
+
+
+	/**
+	 * This method is to add the benchmarks on operands of a single size.
+	 * @param list the list to add them to
+	 * @param size the operand size in bits
+	 * @param random the source of the operands
+	 */
+	private static void sizeBenchmarks(List<Benchmark> list, int size, Random random) {
+		String x = randomDigits(random, size);
+		String y = randomDigits(random, size);
+		String yHalf = randomDigits(random, Math.max(size / 2, 1));
+		String yEqual = x.substring(0, size - 1) + (x.charAt(size - 1) == '0' ? '1' : '0');   // differs in the lowest digit only
+		String padded = "0".repeat(Math.max(size / 8, 1)) + x;
+		BigBinary bx = BigBinary.parse(x), by = BigBinary.parse(y), byHalf = BigBinary.parse(yHalf), byEqual = BigBinary.parse(yEqual);
+
+		list.add(new Benchmark("add." + size, () -> bx.add(by).signum()));
+		list.add(new Benchmark("add.mixed." + size, () -> bx.add(byHalf).signum()));
+		list.add(new Benchmark("subtract." + size, () -> bx.subtract(by).signum()));
+		list.add(new Benchmark("subtract.mixed." + size, () -> byHalf.subtract(bx).signum()));
+		BinaryAccumulator total = new BinaryAccumulator(bx);
+		BigBinary delta = BigBinary.valueOf(0x5DEECE66DL);
+		list.add(new Benchmark("accumulate." + size, () -> total.add(delta).subtract(delta).signum()));
+		if (size <= 1_048_576) {    // the bigger products take seconds each
+			BigBinary product = bx.multiply(by);
+			list.add(new Benchmark("multiply." + size, () -> bx.multiply(by).signum()));
+			list.add(new Benchmark("multiply.mixed." + size, () -> bx.multiply(byHalf).signum()));
+			list.add(new Benchmark("divide." + size, () -> product.divide(byHalf).signum()));
+			list.add(new Benchmark("remainder." + size, () -> product.remainder(byHalf).signum()));
+			String decimal = bx.toString(10);
+			list.add(new Benchmark("toDecimal." + size, () -> bx.toString(10).length()));
+			list.add(new Benchmark("parseDecimal." + size, () -> BigBinary.parse(decimal, 10).signum()));
+		}
+		list.add(new Benchmark("and." + size, () -> bx.and(by).signum()));
+		list.add(new Benchmark("xor.mixed." + size, () -> bx.xor(byHalf).signum()));
+		list.add(new Benchmark("shiftLeft." + size, () -> bx.shiftLeft(size / 3).signum()));
+		list.add(new Benchmark("bitCount." + size, () -> bx.bitCount()));
+		list.add(new Benchmark("compare." + size, () -> bx.compareTo(byEqual)));
+		list.add(new Benchmark("parse." + size, () -> BigBinary.parse(x).signum()));
+		list.add(new Benchmark("render." + size, () -> bx.toCharArray().length));
+		list.add(new Benchmark("toHex." + size, () -> bx.toString(16).length()));
+		list.add(new Benchmark("validateBinary." + size, () -> BinaryCalculator.validateBinary(x)));
+		list.add(new Benchmark("removeLeadingZeros." + size, () -> BinaryCalculator.removeLeadingZeros(padded).length()));
+	}
+
+
+	/**
+	 * This method is to warm a benchmark up and then measure it.
+	 * @param body the operation to measure
+	 * @return the average time in nanoseconds and the average bytes allocated per operation
+	 */
+	private static double[] measure(Body body) {
+		for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+			iteration(body);
+		}
+		double nanos = 0, bytes = 0, ops = 0;
+		for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+			double[] result = iteration(body);
+			nanos += result[0];
+			bytes += result[1];
+			ops += result[2];
+		}
+		return new double[] {nanos / ops, bytes / ops};
+	}
+
+
+	/**
+	 * This method is to run a benchmark for about ITERATION_NANOS, doubling the batch of operations between the clock reads.
+	 * @param body the operation to measure
+	 * @return the elapsed nanoseconds, the bytes allocated and the number of operations
+	 */
+	private static double[] iteration(Body body) {
+		long threadId = Thread.currentThread().getId();
+		long allocatedBefore = THREADS.getThreadAllocatedBytes(threadId);
+		long start = System.nanoTime();
+		long elapsed = 0, ops = 0, batch = 1, result = 0;
+		current = body;
+		while (elapsed < ITERATION_NANOS) {
+			for (long i = 0; i < batch; i++) {
+				result += current.run();
+			}
+			ops += batch;
+			batch = Math.min(batch * 2, 1 << 20);
+			elapsed = System.nanoTime() - start;
+		}
+		long allocated = THREADS.getThreadAllocatedBytes(threadId) - allocatedBefore;
+		sink = result;
+		return new double[] {elapsed, allocated, ops};
+	}
+
+
+	/**
+	 * This method is to make a random binary number with exactly the given number of digits and no leading zero.
+	 * @param random the random number generator
+	 * @param digits the number of digits
+	 * @return the binary digits
+	 */
+	private static String randomDigits(Random random, int digits) {
+		char[] chars = new char[digits];
+		chars[0] = '1';
+		for (int i = 1; i < digits; i++) {
+			chars[i] = random.nextBoolean() ? '1' : '0';
+		}
+		return new String(chars);
+	}
+
+
+	/**
+	 * This method is to read the numbers of a previous run, skipping the comment lines.
+	 * @param path the file written by a previous run
+	 * @return the time and bytes per operation of every benchmark by name
+	 * @throws IOException if the file cannot be read
+	 */
+	private static Map<String, double[]> readBaseline(Path path) throws IOException {
+		Map<String, double[]> baseline = new HashMap<>();
+		for (String line : Files.readAllLines(path)) {
+			String[] fields = line.trim().split("\\s+");
+			if (line.startsWith("#") || fields.length < 3) {
+				continue;
+			}
+			baseline.put(fields[0], new double[] {Double.parseDouble(fields[1]), Double.parseDouble(fields[2])});
+		}
+		return baseline;
+	}
+
+
+	/**
+	 * The Benchmark class ties a name to the operation it measures.
+	 */
+	private static final class Benchmark {
+		final String name;
+		final Body body;
+
+
+		Benchmark(String name, Body body) {
+			this.name = name;
+			this.body = body;
+		}
+	}
+}
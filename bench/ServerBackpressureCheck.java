@@ -0,0 +1,135 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SocketChannel;
+
+/**
+ * The ServerBackpressureCheck program checks that a calculation server does not hold on to the responses of a client that does not read them.
+ * It starts a server in the same JVM and sends it many pipelined shifts with big results (1 << B, by default a 1 MB response each)
+ * without reading anything, then samples the direct memory in use, which holds the buffers of the connections,
+ * while the server has every request but the client has not read a single response.
+ * It then reads all the responses and checks them, so the server must also carry on serving once the client catches up.
+ * It exits with status 1 if the server held more than the limit or a response is wrong or missing.
+ * Run it with "[--requests N] [--bits B] [--limit-mb M]".
+ *
+ * @author Yuxin Xiang
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public class ServerBackpressureCheck {
+	private static final int SAMPLES = 20;          // the number of times the direct memory is read while the client does not read
+	private static final long SAMPLE_MILLIS = 50;
+
+
+	public static void main(String[] args) throws Exception {
+		int requests = 2_000, bits = 1 << 23, limitMb = 32;
+		for (int i = 0; i + 1 < args.length; i += 2) {
+			switch (args[i]) {
+				case "--requests": requests = Integer.parseInt(args[i + 1]); break;
+				case "--bits": bits = Integer.parseInt(args[i + 1]); break;
+				case "--limit-mb": limitMb = Integer.parseInt(args[i + 1]); break;
+				default: throw new IllegalArgumentException("Unknown option " + args[i]);
+			}
+		}
+		BigBinary x = BigBinary.valueOf(1), y = BigBinary.valueOf(bits);
+		BigBinary expected = Operation.SHIFT_LEFT.apply(x, y);
+		BufferPoolMXBean direct = ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class).stream()
+				.filter(pool -> pool.getName().equals("direct")).findFirst().orElseThrow();
+
+		CalculationServer server = new CalculationServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 1, null);
+		Thread serving = new Thread(() -> {
+			try {
+				server.serve();
+			}
+			catch (IOException e) {
+				System.err.println("The server failed: " + e.getMessage());
+			}
+		});
+		serving.setDaemon(true);
+		serving.start();
+
+		boolean failed = false;
+		try (SocketChannel channel = SocketChannel.open(server.address())) {
+			ByteBuffer request = ByteBuffer.allocate(WireFormat.requestBytes(Operation.SHIFT_LEFT, x, y)).order(ByteOrder.LITTLE_ENDIAN);
+			WireFormat.putRequest(request, Operation.SHIFT_LEFT, x, y);
+			int count = requests;
+			Thread sending = new Thread(() -> {
+				try {
+					for (int i = 0; i < count; i++) {
+						request.rewind();
+						while (request.hasRemaining()) {
+							channel.write(request);
+						}
+					}
+				}
+				catch (IOException e) {
+					System.err.println("Sending failed: " + e.getMessage());
+				}
+			});
+			sending.start();
+
+			long held = 0;
+			for (int i = 0; i < SAMPLES; i++) {
+				Thread.sleep(SAMPLE_MILLIS);
+				held = Math.max(held, direct.getMemoryUsed());
+			}
+			System.out.printf("%d pipelined requests of 1 << %d (%d MB of responses), at most %.1f MB of direct buffers held while the client did not read%n",
+					requests, bits, (long) requests * WireFormat.resultBytes(expected) >> 20, held / (double) (1 << 20));
+			if (held > (long) limitMb << 20) {
+				System.out.printf("FAIL: more than %d MB held%n", limitMb);
+				failed = true;
+			}
+
+			ByteBuffer length = ByteBuffer.allocate(WireFormat.LENGTH_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+			int wrong = 0;
+			for (int i = 0; i < requests; i++) {
+				length.clear();
+				readFully(channel, length);
+				ByteBuffer response = ByteBuffer.allocate(length.getInt(0)).order(ByteOrder.LITTLE_ENDIAN);
+				readFully(channel, response);
+				response.flip();
+				try {
+					if (!WireFormat.getResponse(response).equals(expected)) {
+						wrong++;
+					}
+				}
+				catch (ArithmeticException e) {    // an error response, e.g., "Out of memory."
+					wrong++;
+				}
+			}
+			sending.join();
+			System.out.printf("%d responses read, %d wrong%n", requests, wrong);
+			failed |= wrong > 0;
+		}
+		catch (IOException e) {
+			System.out.println("FAIL: " + e.getMessage());
+			failed = true;
+		}
+		finally {
+			server.close();
+		}
+		if (failed) {
+			System.exit(1);
+		}
+	}
+
+
+	/**
+	 * This method is to read from a connection until a buffer is full.
+	 * @param channel the connection
+	 * @param buffer the buffer to fill up to its limit
+	 * @throws IOException if the connection fails or the server closes it
+	 */
+	private static void readFully(SocketChannel channel, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer) < 0) {
+				throw new EOFException("The server closed the connection.");
+			}
+		}
+	}
+}
@@ -0,0 +1,195 @@
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.SocketChannel;
+import java.util.Random;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The ServerLoadGenerator program puts load on a running calculation server (java Main --serve ...) and reports its throughput and latencies.
+ * Every connection runs on its own thread and sends one request at a time, taken in turn from a fixed set of random operands,
+ * and every result is checked against the same calculation done locally. The latencies of the warm-up are left out.
+ * Run it with "<port|socket file> [--connections N] [--seconds S] [--warmup S] [--bits B] [--op SYMBOL]".
+ *
+ * @author Yuxin Xiang
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public class ServerLoadGenerator {
+	private static final int OPERANDS = 64;    // the number of different operand pairs every connection sends
+
+	private static final CalculatorMetrics.LatencyHistogram LATENCIES = new CalculatorMetrics.LatencyHistogram();
+	private static final LongAdder ERRORS = new LongAdder();        // responses with an error message
+	private static final LongAdder MISMATCHES = new LongAdder();    // results that differ from the local calculation
+
+
+	public static void main(String[] args) throws Exception {
+		if (args.length == 0) {
+			System.err.println("Usage: java ServerLoadGenerator <port|socket file> [--connections N] [--seconds S] [--warmup S] [--bits B] [--op SYMBOL]");
+			System.exit(2);
+		}
+		SocketAddress address = args[0].chars().allMatch(Character::isDigit)
+				? new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(args[0]))
+				: UnixDomainSocketAddress.of(args[0]);
+		int connections = 4, seconds = 10, warmup = 2, bits = 1_024;
+		Operation op = Operation.ADD;
+		for (int i = 1; i + 1 < args.length; i += 2) {
+			switch (args[i]) {
+				case "--connections": connections = Integer.parseInt(args[i + 1]); break;
+				case "--seconds": seconds = Integer.parseInt(args[i + 1]); break;
+				case "--warmup": warmup = Integer.parseInt(args[i + 1]); break;
+				case "--bits": bits = Integer.parseInt(args[i + 1]); break;
+				case "--op": op = Operation.fromSymbol(args[i + 1]); break;
+				default: throw new IllegalArgumentException("Unknown option " + args[i]);
+			}
+		}
+		if (op == null) {
+			throw new IllegalArgumentException("Invalid operation.");
+		}
+
+		long start = System.nanoTime();
+		long measureFrom = start + warmup * 1_000_000_000L;
+		long until = measureFrom + seconds * 1_000_000_000L;
+		Thread[] threads = new Thread[connections];
+		for (int i = 0; i < connections; i++) {
+			Random random = new Random(i);
+			Operation operation = op;
+			int size = bits;
+			threads[i] = new Thread(() -> {
+				try {
+					run(address, operation, size, random, measureFrom, until);
+				}
+				catch (IOException e) {
+					System.err.println("Connection failed: " + e.getMessage());
+				}
+			});
+			threads[i].start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+
+		long count = LATENCIES.count();
+		System.out.printf("%d connections, %s on %d-bit operands, %d s measured after %d s of warm-up%n", connections, op.symbol(), bits, seconds, warmup);
+		System.out.printf("%d requests, %.0f requests/s, %d errors, %d mismatches%n", count, count / (double) seconds, ERRORS.sum(), MISMATCHES.sum());
+		System.out.printf("latency: p50 %.1f us, p99 %.1f us, p99.9 %.1f us, max %.1f us%n",
+				LATENCIES.percentile(50) / 1e3, LATENCIES.percentile(99) / 1e3, LATENCIES.percentile(99.9) / 1e3, LATENCIES.max() / 1e3);
+	}
+
+
+	/**
+	 * This method is to send requests over a single connection until the time is up.
+	 * @param address the address of the server
+	 * @param op the operation to request
+	 * @param bits the number of bits of the operands
+	 * @param random the source of the operands
+	 * @param measureFrom the time from which the latencies are recorded
+	 * @param until the time to stop at
+	 * @throws IOException if the connection fails
+	 */
+	private static void run(SocketAddress address, Operation op, int bits, Random random, long measureFrom, long until) throws IOException {
+		BigBinary[] xs = new BigBinary[OPERANDS], ys = new BigBinary[OPERANDS], expected = new BigBinary[OPERANDS];
+		int requestBytes = 0;
+		for (int i = 0; i < OPERANDS; i++) {
+			xs[i] = randomNumber(random, bits);
+			ys[i] = isShift(op) ? BigBinary.valueOf(random.nextInt(bits)) : randomNumber(random, Math.max(bits / 2, 1));
+			try {
+				expected[i] = op.apply(xs[i], ys[i]);
+			}
+			catch (ArithmeticException e) {    // the server should answer with an error as well
+				expected[i] = null;
+			}
+			requestBytes = Math.max(requestBytes, WireFormat.requestBytes(op, xs[i], ys[i]));
+		}
+		ByteBuffer request = ByteBuffer.allocateDirect(requestBytes).order(ByteOrder.LITTLE_ENDIAN);
+		ByteBuffer response = ByteBuffer.allocateDirect(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+
+		try (SocketChannel channel = SocketChannel.open(address instanceof UnixDomainSocketAddress ? StandardProtocolFamily.UNIX : StandardProtocolFamily.INET)) {
+			channel.connect(address);
+			for (int i = 0; ; i = (i + 1) % OPERANDS) {
+				long start = System.nanoTime();
+				if (start - until >= 0) {
+					break;
+				}
+				request.clear();
+				WireFormat.putRequest(request, op, xs[i], ys[i]);
+				request.flip();
+				while (request.hasRemaining()) {
+					channel.write(request);
+				}
+
+				response.clear().limit(WireFormat.LENGTH_BYTES);
+				readFully(channel, response);
+				int length = response.getInt(0);
+				if (length > response.capacity()) {
+					response = ByteBuffer.allocateDirect(length).order(ByteOrder.LITTLE_ENDIAN);
+				}
+				response.clear().limit(length);
+				readFully(channel, response);
+				response.flip();
+				BigBinary result;
+				try {
+					result = WireFormat.getResponse(response);
+				}
+				catch (ArithmeticException e) {
+					result = null;
+					ERRORS.increment();
+				}
+				long end = System.nanoTime();
+
+				if (result == null ? expected[i] != null : !result.equals(expected[i])) {
+					MISMATCHES.increment();
+				}
+				if (start - measureFrom >= 0) {
+					LATENCIES.record(end - start);
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * This method is to read from a connection until a buffer is full.
+	 * @param channel the connection
+	 * @param buffer the buffer to fill up to its limit
+	 * @throws IOException if the connection fails or the server closes it
+	 */
+	private static void readFully(SocketChannel channel, ByteBuffer buffer) throws IOException {
+		while (buffer.hasRemaining()) {
+			if (channel.read(buffer) < 0) {
+				throw new EOFException("The server closed the connection.");
+			}
+		}
+	}
+
+
+	/**
+	 * This method is to check if an operation is a shift, so its Y must be a small distance.
+	 * @param op the operation
+	 * @return true for << and >>
+	 */
+	private static boolean isShift(Operation op) {
+		return op == Operation.SHIFT_LEFT || op == Operation.SHIFT_RIGHT;
+	}
+
+
+	/**
+	 * This method is to make a random positive binary number with its top bit set.
+	 * @param random the source of the digits
+	 * @param bits the number of bits
+	 * @return the binary number
+	 */
+	private static BigBinary randomNumber(Random random, int bits) {
+		StringBuilder sb = new StringBuilder(bits).append('1');
+		for (int i = 1; i < bits; i++) {
+			sb.append((char) ('0' + random.nextInt(2)));
+		}
+		return BigBinary.parse(sb.toString());
+	}
+}
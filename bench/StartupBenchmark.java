@@ -0,0 +1,155 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.spi.ToolProvider;
+
+/**
+ * The StartupBenchmark program measures how long a script waits for a single calculation when it starts a new JVM for it:
+ * the time from starting the process to reading the result on its standard output, and to the process exiting.
+ * It compares the one-shot mode (java Main + X Y) with and without an AppCDS archive of its classes (made by a first run with -XX:ArchiveClassesAtExit),
+ * and the interactive calculator, which prints the banner and the truth tables before it reads the calculation.
+ * The classes are packed into a temporary JAR first, as an archive can only be made for classes loaded from JAR files.
+ * Every case is run a few times first so the class files are in the file cache, then timed over many runs, and reports the median and the 90th percentile.
+ * Run it with "--classpath DIR" (the directory of the compiled sources, by default the class path of the benchmark itself), "--runs N" and "--baseline FILE" as for CalculatorBenchmark.
+ *
+ * @author Yuxin Xiang
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public class StartupBenchmark {
+	private static final int WARMUP_RUNS = 3;
+	private static final String X = "1011", Y = "110", RESULT = "10001";    // X + Y
+
+
+	public static void main(String[] args) throws IOException, InterruptedException {
+		Map<String, double[]> baseline = new HashMap<>();
+		String classpath = System.getProperty("java.class.path");
+		int runs = 20;
+		for (int i = 0; i < args.length; i++) {
+			if (args[i].equals("--baseline") && i + 1 < args.length) {
+				baseline = readBaseline(Paths.get(args[++i]));
+			}
+			else if (args[i].equals("--classpath") && i + 1 < args.length) {
+				classpath = args[++i];
+			}
+			else if (args[i].equals("--runs") && i + 1 < args.length) {
+				runs = Integer.parseInt(args[++i]);
+			}
+		}
+		String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+		Path jar = Files.createTempFile("calculator", ".jar");
+		Path archive = Files.createTempFile("calculator", ".jsa");
+		try {
+			ToolProvider jarTool = ToolProvider.findFirst("jar").orElseThrow(() -> new IOException("The jar tool is missing."));
+			Files.delete(jar);
+			if (jarTool.run(System.out, System.err, "--create", "--file", jar.toString(), "-C", classpath, ".") != 0) {
+				throw new IOException("Cannot pack " + classpath + " into a JAR.");
+			}
+			String cp = jar.toString();
+			run(List.of(java, "-XX:ArchiveClassesAtExit=" + archive, "-cp", cp, "Main", "+", X, Y), null);    // dumps the archive on exit
+
+			System.out.println("# " + System.getProperty("java.vm.name") + " " + System.getProperty("java.version")
+					+ ", " + Runtime.getRuntime().availableProcessors() + " cores, " + runs + " runs");
+			System.out.printf("# %-40s %16s %16s%s%n", "benchmark", "ms to result", "ms to exit", baseline.isEmpty() ? "" : "   vs baseline");
+			report("startup.oneShot", List.of(java, "-cp", cp, "Main", "+", X, Y), null, runs, baseline);
+			report("startup.oneShot.appCds", List.of(java, "-XX:SharedArchiveFile=" + archive, "-cp", cp, "Main", "+", X, Y), null, runs, baseline);
+			report("startup.interactive", List.of(java, "-cp", cp, "Main"), "+\n" + X + "\n" + Y + "\nq\n", runs, baseline);
+		}
+		finally {
+			Files.deleteIfExists(jar);
+			Files.deleteIfExists(archive);
+		}
+	}
+
+
+	/**
+	 * This method is to time a command over warm-up and measured runs and print the medians and the 90th percentiles of the times to the result and to exit.
+	 * @param name the name of the benchmark
+	 * @param command the command line to start
+	 * @param input what to type into the standard input, null for nothing
+	 * @param runs the number of measured runs
+	 * @param baseline the saved numbers by benchmark name, to print the change of the median time to the result against
+	 * @throws IOException if the process cannot be started or does not print the result
+	 * @throws InterruptedException if the benchmark is interrupted while waiting for the process
+	 */
+	private static void report(String name, List<String> command, String input, int runs, Map<String, double[]> baseline) throws IOException, InterruptedException {
+		for (int i = 0; i < WARMUP_RUNS; i++) {
+			run(command, input);
+		}
+		double[] toResult = new double[runs], toExit = new double[runs];
+		for (int i = 0; i < runs; i++) {
+			long[] nanos = run(command, input);
+			toResult[i] = nanos[0] / 1e6;
+			toExit[i] = nanos[1] / 1e6;
+		}
+		Arrays.sort(toResult);
+		Arrays.sort(toExit);
+		double median = toResult[runs / 2];
+		double[] previous = baseline.get(name + ".p50");
+		String change = (previous == null) ? "" : String.format("   %+6.1f%%", 100.0 * (median - previous[0]) / previous[0]);
+		System.out.printf("%-42s %16.1f %16.1f%s%n", name + ".p50", median, toExit[runs / 2], change);
+		System.out.printf("%-42s %16.1f %16.1f%n", name + ".p90", toResult[runs * 9 / 10], toExit[runs * 9 / 10]);
+	}
+
+
+	/**
+	 * This method is to start a command once and wait for it to print the result and exit.
+	 * @param command the command line to start
+	 * @param input what to type into the standard input, null for nothing
+	 * @return the nanoseconds from starting the process to reading the result, and to the process exiting
+	 * @throws IOException if the process cannot be started, does not print the result or fails
+	 * @throws InterruptedException if the benchmark is interrupted while waiting for the process
+	 */
+	private static long[] run(List<String> command, String input) throws IOException, InterruptedException {
+		long start = System.nanoTime();
+		Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+		try (OutputStream in = process.getOutputStream()) {
+			if (input != null) {
+				in.write(input.getBytes(StandardCharsets.US_ASCII));
+			}
+		}
+		long result = 0;
+		try (BufferedReader out = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.US_ASCII))) {
+			String line;
+			while ((line = out.readLine()) != null) {
+				if (result == 0 && line.trim().equals(RESULT)) {    // the interactive calculator pads the result to line it up
+					result = System.nanoTime() - start;
+				}
+			}
+		}
+		int status = process.waitFor();
+		long exit = System.nanoTime() - start;
+		if (result == 0 || status != 0) {
+			throw new IOException("The calculation failed: " + String.join(" ", command));
+		}
+		return new long[] {result, exit};
+	}
+
+
+	/**
+	 * This method is to read the numbers saved by an earlier run.
+	 * @param path the file of the saved output
+	 * @return the two numbers of every benchmark by its name
+	 * @throws IOException if the file cannot be read
+	 */
+	private static Map<String, double[]> readBaseline(Path path) throws IOException {
+		Map<String, double[]> baseline = new HashMap<>();
+		for (String line : Files.readAllLines(path)) {
+			String[] fields = line.trim().split("\\s+");
+			if (line.startsWith("#") || fields.length < 3) {
+				continue;
+			}
+			baseline.put(fields[0], new double[] {Double.parseDouble(fields[1]), Double.parseDouble(fields[2])});
+		}
+		return baseline;
+	}
+}
@@ -0,0 +1,244 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Writer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Semaphore;
+
+/**
+ * The BatchPipeline class evaluates the same "op X Y" records as BatchProcessor, but spreads the work over three stages:
+ * a parse stage that reads and validates the records, a compute stage of several worker threads that calculate and render the results,
+ * and a writer stage that writes the results back in the input order. The queues in between are bounded and the number of records
+ * in flight is capped, so a fast reader waits for the writer instead of filling the memory.
+ * An exception other than a failed record (i.e., a bug) in the parse or compute stage is handed to the writer, which stops the batch with it.
+ *
+ * @author Yuxin Xiang
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public final class BatchPipeline {
+	static final int WINDOW = 4096;    // the maximum number of records read but not written yet
+
+	private final int workers;
+	private final ResultCache cache;    // null to calculate every record
+	private final BlockingQueue<Task> parsed = new ArrayBlockingQueue<>(WINDOW);
+	private final BlockingQueue<Task> computed = new ArrayBlockingQueue<>(WINDOW + 1);   // one more for the end marker
+	private final Semaphore inFlight = new Semaphore(WINDOW);
+	private volatile IOException readFailure;    // set by the parse stage if the records cannot be read
+
+
+	private BatchPipeline(int workers, ResultCache cache) {
+		this.workers = workers;
+		this.cache = cache;
+	}
+
+
+	/**
+	 * This method is to evaluate every record from a reader with a number of worker threads and write the results to a writer,
+	 * one line per record in the input order. The writer is flushed at the end but not closed.
+	 * @param in the reader to read the records from
+	 * @param out the writer to write the results in
+	 * @param workers the number of worker threads in the compute stage
+	 * @return the number of records that could not be evaluated
+	 * @throws IOException if the records cannot be read or the results cannot be written
+	 */
+	public static long process(BufferedReader in, Writer out, int workers) throws IOException {
+		return process(in, out, workers, null);
+	}
+
+
+	/**
+	 * This method is to evaluate every record the same way as process(BufferedReader, Writer, int), serving repeated calculations from a cache
+	 * shared by the worker threads.
+	 * @param in the reader to read the records from
+	 * @param out the writer to write the results in
+	 * @param workers the number of worker threads in the compute stage
+	 * @param cache the cache of recent results, or null to calculate every record
+	 * @return the number of records that could not be evaluated
+	 * @throws IOException if the records cannot be read or the results cannot be written
+	 */
+	public static long process(BufferedReader in, Writer out, int workers, ResultCache cache) throws IOException {
+		if (workers < 1) {
+			throw new IllegalArgumentException("The number of workers must be at least 1.");
+		}
+		return new BatchPipeline(workers, cache).run(in, out);
+	}
+
+
+	/**
+	 * This method is to start the parse and compute stages and run the writer stage on the calling thread.
+	 * @param in the reader to read the records from
+	 * @param out the writer to write the results in
+	 * @return the number of records that could not be evaluated
+	 * @throws IOException if the records cannot be read or the results cannot be written
+	 */
+	private long run(BufferedReader in, Writer out) throws IOException {
+		Thread[] threads = new Thread[workers + 1];
+		threads[0] = new Thread(() -> parseStage(in), "batch-parser");
+		for (int i = 1; i <= workers; i++) {
+			threads[i] = new Thread(this::computeStage, "batch-worker-" + i);
+		}
+		for (Thread thread : threads) {
+			thread.setDaemon(true);
+			thread.start();
+		}
+		try {
+			long errors = writeStage(out);
+			if (readFailure != null) {
+				throw readFailure;
+			}
+			return errors;
+		}
+		finally {
+			for (Thread thread : threads) {    // to stop the other stages if the writer gave up halfway
+				thread.interrupt();
+			}
+		}
+	}
+
+
+	/**
+	 * This method is the parse stage: it reads and validates every record, then hands it over to the compute stage.
+	 * A record that fails validation goes straight to the writer with its error message.
+	 * @param in the reader to read the records from
+	 */
+	private void parseStage(BufferedReader in) {
+		long seq = 0;
+		try {
+			try {
+				String line;
+				while ((line = in.readLine()) != null) {
+					inFlight.acquire();    // to wait for the writer once WINDOW records are in flight
+					Task task = new Task(seq++);
+					try {
+						task.record = BatchProcessor.parse(line);
+						parsed.put(task);
+					}
+					catch (BatchProcessor.RecordException e) {
+						task.error = e.getMessage();
+						computed.put(task);
+					}
+					catch (RuntimeException | Error e) {    // a bug, which the writer stops the batch with
+						task.failure = e;
+						computed.put(task);
+					}
+				}
+			}
+			catch (IOException e) {
+				readFailure = e;
+			}
+			for (int i = 0; i < workers; i++) {
+				parsed.put(Task.END);
+			}
+			computed.put(Task.end(seq));    // to tell the writer how many records there are
+		}
+		catch (InterruptedException e) {    // the writer gave up, nothing left to do
+		}
+	}
+
+
+	/**
+	 * This method is the compute stage run by every worker thread: it calculates each record and renders its result.
+	 */
+	private void computeStage() {
+		try {
+			Task task;
+			while ((task = parsed.take()) != Task.END) {
+				try {
+					task.output = task.record.render(cache);
+				}
+				catch (BatchProcessor.RecordException e) {    // a calculation that cannot be carried out only fails its own record
+					task.error = e.getMessage();
+				}
+				catch (RuntimeException | Error e) {    // a bug, which the writer stops the batch with
+					task.failure = e;
+				}
+				task.record = null;
+				computed.put(task);
+			}
+		}
+		catch (InterruptedException e) {    // the writer gave up, nothing left to do
+		}
+	}
+
+
+	/**
+	 * This method is the writer stage: it puts the results back in the input order and writes them one per line.
+	 * @param out the writer to write the results in
+	 * @return the number of records that could not be evaluated
+	 * @throws IOException if the results cannot be written
+	 * @throws IllegalStateException if a record hit a bug rather than failing as a record does
+	 */
+	private long writeStage(Writer out) throws IOException {
+		Task[] pending = new Task[WINDOW];    // the results that came back before an earlier one, by sequence number
+		long next = 0;       // the sequence number of the next record to write
+		long total = -1;     // the number of records, known once the parse stage is finished
+		long errors = 0;
+		try {
+			while (total < 0 || next < total) {
+				Task task = computed.take();
+				if (task.isEnd()) {
+					total = task.seq;
+					continue;
+				}
+				if (task.failure != null) {
+					throw new IllegalStateException("The record on line " + (task.seq + 1) + " failed.", task.failure);
+				}
+				pending[(int) (task.seq % WINDOW)] = task;
+				int slot;
+				while ((task = pending[slot = (int) (next % WINDOW)]) != null) {
+					pending[slot] = null;
+					if (task.error != null) {
+						out.write(task.error);
+						errors++;
+					}
+					else {
+						out.write(task.output);
+					}
+					out.write('\n');
+					next++;
+					inFlight.release();
+				}
+			}
+		}
+		catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("The batch was interrupted.");
+		}
+		out.flush();
+		return errors;
+	}
+
+
+	/**
+	 * The Task class carries a single record through the stages.
+	 */
+	static final class Task {
+		static final Task END = new Task(-1);    // tells a worker there are no more records
+
+		final long seq;                    // the position of the record in the input
+		BatchProcessor.Record record;      // set by the parse stage
+		char[] output;                     // set by the compute stage
+		String error;                      // set by whichever stage the record fails in
+		Throwable failure;                 // set by whichever stage hits a bug on the record
+		private boolean end;
+
+
+		Task(long seq) {
+			this.seq = seq;
+		}
+
+
+		static Task end(long total) {
+			Task task = new Task(total);
+			task.end = true;
+			return task;
+		}
+
+
+		boolean isEnd() {
+			return end;
+		}
+	}
+}
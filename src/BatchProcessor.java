@@ -0,0 +1,218 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The BatchProcessor class evaluates newline-delimited records of the form "op X Y" (e.g., "+ 1011 110"), or "op X" for a unary operation, without any prompt,
+ * writing one compact result per line in the same order. A record that cannot be evaluated gets the same message the interactive
+ * calculator prints for it (e.g., "Not a binary number!") on its own line, and the batch carries on with the next record.
+ * Any other exception is a bug rather than a bad record, so it is not turned into a message but stops the batch.
+ *
+ * @author Yuxin Xiang
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public final class BatchProcessor {
+	static final String INVALID_OPERATION = "Invalid operation.";
+	static final String NOT_BINARY = "Not a binary number!";
+	static final String INVALID_RECORD = "Invalid record.";
+
+
+	private BatchProcessor() {
+	}
+
+
+	/**
+	 * This method is to evaluate every record from a reader and write the results to a writer, one line per record.
+	 * The writer is flushed at the end but not closed.
+	 * @param in the reader to read the records from
+	 * @param out the writer to write the results in
+	 * @return the number of records that could not be evaluated
+	 * @throws IOException if the records cannot be read or the results cannot be written
+	 */
+	public static long process(BufferedReader in, Writer out) throws IOException {
+		return process(in, out, null);
+	}
+
+
+	/**
+	 * This method is to evaluate every record the same way as process(BufferedReader, Writer), serving repeated calculations from a cache.
+	 * @param in the reader to read the records from
+	 * @param out the writer to write the results in
+	 * @param cache the cache of recent results, or null to calculate every record
+	 * @return the number of records that could not be evaluated
+	 * @throws IOException if the records cannot be read or the results cannot be written
+	 */
+	public static long process(BufferedReader in, Writer out, ResultCache cache) throws IOException {
+		long errors = 0;
+		String record;
+		while ((record = in.readLine()) != null) {
+			try {
+				out.write(parse(record).render(cache));
+			}
+			catch (RecordException e) {
+				out.write(e.getMessage());
+				errors++;
+			}
+			out.write('\n');
+		}
+		out.flush();
+		return errors;
+	}
+
+
+	/**
+	 * This method is to evaluate a single record.
+	 * @param record the record in the form "op X Y" (or "op X" for a unary operation), with fields separated by one or more spaces
+	 * @return the result of the calculation
+	 * @throws RecordException if the record is malformed, the operation is invalid, an operand is not a binary number
+	 * or the calculation cannot be carried out
+	 */
+	static BigBinary evaluate(String record) throws RecordException {
+		return parse(record).evaluate();
+	}
+
+
+	/**
+	 * This method is to parse and validate a single record without calculating it.
+	 * @param record the record in the form "op X Y" (or "op X" for a unary operation), with fields separated by one or more spaces
+	 * @return the parsed record
+	 * @throws RecordException if the record is malformed, the operation is invalid or an operand is not a binary number
+	 */
+	static Record parse(String record) throws RecordException {
+		byte[] bytes = record.getBytes(StandardCharsets.ISO_8859_1);    // the operands are scanned 8 bytes at a time (see BinaryScanner)
+		int len = bytes.length;
+		int[] bounds = new int[6];    // the start and end indices of the three fields
+		int fields = 0;
+		int i = 0;
+		while (i < len) {
+			while (i < len && bytes[i] == ' ') {    // to skip the spaces in between the fields
+				i++;
+			}
+			if (i == len) {
+				break;
+			}
+			if (fields == 3) {    // there is a fourth field
+				throw invalid(INVALID_RECORD);
+			}
+			bounds[2 * fields] = i;
+			while (i < len && bytes[i] != ' ') {
+				i++;
+			}
+			bounds[2 * fields + 1] = i;
+			fields++;
+		}
+		if (fields == 0) {
+			throw invalid(INVALID_RECORD);
+		}
+		Operation op = Operation.fromSymbol(bytes, bounds[0], bounds[1]);
+		if (op == null) {
+			throw invalid(INVALID_OPERATION);
+		}
+		if (fields != (op.isUnary() ? 2 : 3)) {    // a unary operation only takes X
+			throw invalid(INVALID_RECORD);
+		}
+		try {
+			BigBinary x = BigBinary.parse(bytes, bounds[2], bounds[3]);
+			BigBinary y = op.isUnary() ? null : BigBinary.parse(bytes, bounds[4], bounds[5]);
+			return new Record(op, x, y);
+		}
+		catch (NumberFormatException e) {
+			throw invalid(NOT_BINARY);
+		}
+	}
+
+
+	/**
+	 * This method is to make the exception for a record that fails validation, counting it when the instrumentation is switched on
+	 * (see CalculatorMetrics).
+	 * @param message the message the record gets (e.g., NOT_BINARY)
+	 * @return the exception to throw
+	 */
+	private static RecordException invalid(String message) {
+		if (CalculatorMetrics.ENABLED) {
+			CalculatorMetrics.validationFailure(message);
+		}
+		return new RecordException(message);
+	}
+
+
+	/**
+	 * The Record class holds a parsed and validated record that is ready to be calculated.
+	 */
+	static final class Record {
+		final Operation op;
+		final BigBinary x, y;
+
+
+		Record(Operation op, BigBinary x, BigBinary y) {
+			this.op = op;
+			this.x = x;
+			this.y = y;
+		}
+
+
+		/**
+		 * This method is to calculate the record.
+		 * @return the result of X op Y
+		 * @throws RecordException if the calculation cannot be carried out (e.g., a division by zero)
+		 */
+		BigBinary evaluate() throws RecordException {
+			return evaluate(null);
+		}
+
+
+		/**
+		 * This method is to calculate the record, taking the result from a cache if the same calculation was done before.
+		 * @param cache the cache of recent results, or null to calculate the record
+		 * @return the result of X op Y
+		 * @throws RecordException if the calculation cannot be carried out (e.g., a division by zero)
+		 */
+		BigBinary evaluate(ResultCache cache) throws RecordException {
+			try {
+				return (cache == null) ? op.apply(x, y) : cache.apply(op, x, y);
+			}
+			catch (IllegalArgumentException | ArithmeticException e) {    // e.g., a division by zero, while any other exception is a bug and stops the batch
+				throw new RecordException(e.getMessage() != null ? e.getMessage() : e.toString());
+			}
+			catch (OutOfMemoryError e) {    // the partial result is garbage by now, so the batch can go on with the next record
+				throw new RecordException("Out of memory.");
+			}
+		}
+
+
+		/**
+		 * This method is to calculate the record and render its result. Both BatchProcessor and BatchPipeline go through it,
+		 * so a record fails the same way, with the same message and only on its own line, whichever of them evaluates it.
+		 * @param cache the cache of recent results, or null to calculate the record
+		 * @return the digits of the result
+		 * @throws RecordException if the calculation cannot be carried out or its result cannot be rendered
+		 */
+		char[] render(ResultCache cache) throws RecordException {
+			BigBinary result = evaluate(cache);
+			try {
+				return result.toCharArray();
+			}
+			catch (ArithmeticException e) {    // more digits than an array can hold
+				throw new RecordException(e.getMessage());
+			}
+			catch (OutOfMemoryError e) {
+				throw new RecordException("Out of memory.");
+			}
+		}
+	}
+
+
+	/**
+	 * The RecordException class reports why a single record could not be evaluated.
+	 */
+	static final class RecordException extends Exception {
+		private static final long serialVersionUID = 1L;
+
+
+		RecordException(String message) {
+			super(message, null, false, false);    // no stack trace, as a batch might hold many bad records
+		}
+	}
+}
@@ -0,0 +1,485 @@
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * The BigBinary class is an immutable arbitrary length binary number that can be used in-process without the console.
+ * The magnitude is packed into 64-bit limbs (see LimbArithmetic) and the sign is kept separately,
+ * so the subtraction of a bigger number gives a negative result the same way the calculator prints it (e.g., "-101").
+ *
+ * @author Yuxin Xiang
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public final class BigBinary implements Comparable<BigBinary> {
+	/**
+	 * The number zero.
+	 */
+	public static final BigBinary ZERO = new BigBinary(new long[0], 0, false);
+
+	private static final long MAX_CHARS = Integer.MAX_VALUE - 8;    // the longest char array the JVM can allocate
+
+	private final long[] words;       // the limbs of the magnitude, lowest limb first, might have room left at the top
+	private final int length;         // the number of significant limbs
+	private final boolean negative;   // to mark a negative number, never set for zero
+
+
+	/**
+	 * The constructor of the BigBinary class from limbs that are never modified afterwards.
+	 * @param words the limbs of the magnitude, lowest limb first
+	 * @param length the number of significant limbs
+	 * @param negative true if the number is negative
+	 */
+	BigBinary(long[] words, int length, boolean negative) {
+		this.words = words;
+		this.length = length;
+		this.negative = negative && length > 0;   // zero is never negative
+	}
+
+
+	/**
+	 * This method is to parse a string of binary digits with an optional negative sign in the front (e.g., "1011" or "-110").
+	 * Leading zeros are allowed and ignored.
+	 * @param str the string to parse
+	 * @return the binary number the string represents
+	 * @throws NumberFormatException if the string is not a binary number
+	 */
+	public static BigBinary parse(String str) {
+		byte[] digits = str.getBytes(StandardCharsets.ISO_8859_1);    // a character outside Latin-1 becomes '?', which is not a digit
+		return parse(digits, 0, digits.length);
+	}
+
+
+	/**
+	 * This method is to parse a part of a byte array the same way as parse(String), so a record can be parsed without cutting it into substrings.
+	 * The digits are validated and packed in a single pass (see BinaryScanner).
+	 * @param str the Latin-1 bytes that hold the binary number
+	 * @param from the index of the first byte of the binary number
+	 * @param to the index right after the last byte of the binary number
+	 * @return the binary number the part of the array represents
+	 * @throws NumberFormatException if the part of the array is not a binary number
+	 */
+	static BigBinary parse(byte[] str, int from, int to) {
+		boolean negative = from < to && str[from] == '-';
+		long[] words = LimbArithmetic.trim(BinaryScanner.pack(str, negative ? from + 1 : from, to));   // only copied if there are leading zero limbs
+		return new BigBinary(words, words.length, negative);
+	}
+
+
+	/**
+	 * This method is to parse a string of digits in base 2, 10 or 16 with an optional negative sign in the front (e.g., "-255" or "ff").
+	 * Hexadecimal digits can be lower or upper case. Leading zeros are allowed and ignored.
+	 * @param str the string to parse
+	 * @param radix the base of the digits, 2, 10 or 16
+	 * @return the number the string represents
+	 * @throws NumberFormatException if the string is not a number in the base
+	 * @throws IllegalArgumentException if the base is not 2, 10 or 16
+	 */
+	public static BigBinary parse(String str, int radix) {
+		byte[] digits = str.getBytes(StandardCharsets.ISO_8859_1);
+		boolean negative = digits.length > 0 && digits[0] == '-';
+		long[] words = RadixConversion.parse(digits, negative ? 1 : 0, digits.length, radix);
+		return new BigBinary(words, words.length, negative);
+	}
+
+
+	/**
+	 * This method is to get the binary number of a long value.
+	 * @param value the value
+	 * @return the binary number with the same value
+	 */
+	public static BigBinary valueOf(long value) {
+		if (value == 0) {
+			return ZERO;
+		}
+		long magnitude = (value < 0) ? -value : value;    // Long.MIN_VALUE stays the same, which is its right unsigned magnitude
+		return new BigBinary(new long[] {magnitude}, 1, value < 0);
+	}
+
+
+	/**
+	 * This method is to add another binary number to this one.
+	 * @param other the binary number to add
+	 * @return the sum (i.e., this + other)
+	 */
+	public BigBinary add(BigBinary other) {
+		return addSigned(other, other.negative);
+	}
+
+
+	/**
+	 * This method is to subtract another binary number from this one.
+	 * @param other the binary number to subtract
+	 * @return the difference (i.e., this - other), negative if other is bigger
+	 */
+	public BigBinary subtract(BigBinary other) {
+		return addSigned(other, !other.negative);
+	}
+
+
+	/**
+	 * This method is to add the magnitude of another number with the given sign, which covers both addition and subtraction.
+	 * @param other the binary number whose magnitude is added
+	 * @param otherNegative the sign to add the magnitude with
+	 * @return the result of the signed addition
+	 */
+	private BigBinary addSigned(BigBinary other, boolean otherNegative) {
+		if (negative == otherNegative) {    // same signs, the magnitudes are added and the sign stays
+			long[] sum = new long[Math.max(length, other.length) + 1];   // one more limb for the final carry
+			int sumLen = LimbArithmetic.add(words, length, other.words, other.length, sum);
+			return new BigBinary(sum, sumLen, negative);
+		}
+		// The magnitudes are compared from the highest limb down, and the subtraction starts from where the comparison stopped:
+		// the equal limbs above it cancel out, so every limb is read once, either by the comparison or by the subtraction.
+		int span = Math.max(length, other.length);    // the number of low limbs to subtract
+		boolean thisBigger = length > other.length;
+		if (length == other.length) {
+			int top = LimbArithmetic.highestDifference(words, other.words, length);
+			if (top < 0) {
+				return ZERO;
+			}
+			span = top + 1;
+			thisBigger = Long.compareUnsigned(words[top], other.words[top]) > 0;
+		}
+		BigBinary bigger = thisBigger ? this : other, smaller = thisBigger ? other : this;   // swap the sequence if the other magnitude is bigger
+		long[] difference = new long[span];
+		int differenceLen = LimbArithmetic.subtract(bigger.words, span, smaller.words, Math.min(smaller.length, span), difference);
+		return new BigBinary(difference, differenceLen, thisBigger ? negative : otherNegative);
+	}
+
+
+	/**
+	 * This method is to get the binary number with the same magnitude and the opposite sign.
+	 * @return -this
+	 */
+	public BigBinary negate() {
+		return (length == 0) ? this : new BigBinary(words, length, !negative);   // the limbs are never modified, so they can be shared
+	}
+
+
+	/**
+	 * This method is to multiply this binary number by another one.
+	 * @param other the binary number to multiply by
+	 * @return the product (i.e., this * other)
+	 */
+	public BigBinary multiply(BigBinary other) {
+		long[] product = LimbMultiplication.multiply(magnitude(), other.magnitude());
+		return new BigBinary(product, product.length, negative != other.negative);
+	}
+
+
+	/**
+	 * This method is to divide this binary number by another one, rounding the quotient toward zero.
+	 * @param other the binary number to divide by
+	 * @return the quotient (i.e., this / other), negative if exactly one of the numbers is negative
+	 * @throws ArithmeticException if other is zero
+	 */
+	public BigBinary divide(BigBinary other) {
+		return divideAndRemainder(other)[0];
+	}
+
+
+	/**
+	 * This method is to get the remainder of dividing this binary number by another one.
+	 * @param other the binary number to divide by
+	 * @return the remainder (i.e., this - (this / other) * other), which takes the sign of this number
+	 * @throws ArithmeticException if other is zero
+	 */
+	public BigBinary remainder(BigBinary other) {
+		return divideAndRemainder(other)[1];
+	}
+
+
+	/**
+	 * This method is to divide this binary number by another one and get both the quotient and the remainder in a single division.
+	 * @param other the binary number to divide by
+	 * @return the quotient and the remainder, in this order
+	 * @throws ArithmeticException if other is zero
+	 */
+	public BigBinary[] divideAndRemainder(BigBinary other) {
+		if (other.length == 0) {
+			throw new ArithmeticException("Division by zero.");
+		}
+		long[][] qr = LimbDivision.divideAndRemainder(magnitude(), other.magnitude());
+		return new BigBinary[] {
+			new BigBinary(qr[0], qr[0].length, negative != other.negative),
+			new BigBinary(qr[1], qr[1].length, negative)
+		};
+	}
+
+
+	/**
+	 * This method is to calculate the bitwise AND of this binary number and another one, digit by digit.
+	 * @param other the binary number to combine with, aligned on the lowest digit
+	 * @return this & other
+	 * @throws ArithmeticException if either number is negative
+	 */
+	public BigBinary and(BigBinary other) {
+		checkBitwise(other);
+		long[] z = LimbBitwise.and(magnitude(), other.magnitude());
+		return new BigBinary(z, z.length, false);
+	}
+
+
+	/**
+	 * This method is to calculate the bitwise OR of this binary number and another one, digit by digit.
+	 * @param other the binary number to combine with, aligned on the lowest digit
+	 * @return this | other
+	 * @throws ArithmeticException if either number is negative
+	 */
+	public BigBinary or(BigBinary other) {
+		checkBitwise(other);
+		long[] z = LimbBitwise.or(magnitude(), other.magnitude());
+		return new BigBinary(z, z.length, false);
+	}
+
+
+	/**
+	 * This method is to calculate the bitwise XOR of this binary number and another one, digit by digit.
+	 * @param other the binary number to combine with, aligned on the lowest digit
+	 * @return this ^ other
+	 * @throws ArithmeticException if either number is negative
+	 */
+	public BigBinary xor(BigBinary other) {
+		checkBitwise(other);
+		long[] z = LimbBitwise.xor(magnitude(), other.magnitude());
+		return new BigBinary(z, z.length, false);
+	}
+
+
+	/**
+	 * This method is to invert every digit of this binary number, as many as it has without leading zeros (e.g., ~1010 is 101).
+	 * @return ~this
+	 * @throws ArithmeticException if this number is negative
+	 */
+	public BigBinary not() {
+		checkBitwise(this);
+		long[] z = LimbBitwise.not(magnitude());
+		return new BigBinary(z, z.length, false);
+	}
+
+
+	/**
+	 * This method is to count the digits set to 1 in this binary number.
+	 * @return the number of 1 digits
+	 * @throws ArithmeticException if this number is negative
+	 */
+	public long bitCount() {
+		checkBitwise(this);
+		return LimbBitwise.popCount(words, length);
+	}
+
+
+	/**
+	 * This method is to shift the digits of this binary number to the left, keeping the sign (i.e., this * 2^n).
+	 * @param n the number of digits to shift by, shifting to the right if negative
+	 * @return this << n
+	 * @throws ArithmeticException if the result would be too long to hold
+	 */
+	public BigBinary shiftLeft(long n) {
+		if (n < 0) {
+			return shiftRight((n == Long.MIN_VALUE) ? Long.MAX_VALUE : -n);
+		}
+		if (length == 0 || n == 0) {
+			return this;
+		}
+		if ((n >>> 6) > Integer.MAX_VALUE - 8 - length) {    // the most limbs an array can hold
+			throw new ArithmeticException("Shift distance too big.");
+		}
+		long[] z = LimbArithmetic.shiftLeft(magnitude(), n);
+		return new BigBinary(z, z.length, negative);
+	}
+
+
+	/**
+	 * This method is to shift the digits of this binary number to the right, dropping the lowest digits and keeping the sign
+	 * (i.e., this / 2^n, rounded toward zero).
+	 * @param n the number of digits to shift by, shifting to the left if negative
+	 * @return this >> n
+	 * @throws ArithmeticException if the result would be too long to hold
+	 */
+	public BigBinary shiftRight(long n) {
+		if (n < 0) {
+			return shiftLeft((n == Long.MIN_VALUE) ? Long.MAX_VALUE : -n);
+		}
+		if (length == 0 || n == 0) {
+			return this;
+		}
+		long[] z = LimbArithmetic.shiftRight(magnitude(), n);
+		return new BigBinary(z, z.length, negative);
+	}
+
+
+	/**
+	 * This method is to check that both operands of a bitwise operation are non-negative,
+	 * as the digits of the magnitude are combined and a sign has no digit to combine with.
+	 * @param other the other operand
+	 * @throws ArithmeticException if either number is negative
+	 */
+	private void checkBitwise(BigBinary other) {
+		if (negative || other.negative) {
+			throw new ArithmeticException("Bitwise operations need non-negative numbers.");
+		}
+	}
+
+
+	/**
+	 * This method is to get the limbs of the magnitude as a trimmed array (see LimbArithmetic.trim), which must not be modified.
+	 * @return the significant limbs, lowest limb first
+	 */
+	private long[] magnitude() {
+		return (length == words.length) ? words : Arrays.copyOf(words, length);
+	}
+
+
+	/**
+	 * This method is to get the limbs of the magnitude, which must not be modified.
+	 * @return the limbs, lowest limb first, might have room left at the top
+	 */
+	long[] limbs() {
+		return words;
+	}
+
+
+	/**
+	 * This method is to get the number of significant limbs of the magnitude.
+	 * @return the number of limbs in use, 0 for zero
+	 */
+	int limbCount() {
+		return length;
+	}
+
+
+	/**
+	 * This method is to get the sign of the binary number.
+	 * @return -1 if it is negative, 0 if it is zero, 1 if it is positive
+	 */
+	public int signum() {
+		return negative ? -1 : (length == 0 ? 0 : 1);
+	}
+
+
+	/**
+	 * This method is to get the number of significant bits of the magnitude.
+	 * @return the bit length, 0 for zero
+	 */
+	public long bitLength() {
+		return LimbArithmetic.bitLength(words, length);
+	}
+
+
+	/**
+	 * This method is to compare this binary number with another one by value, counting it as a comparison when the instrumentation is switched on.
+	 * It is the entry point for code that compares numbers; the calculator itself (e.g., the result cache) calls compare, which is not counted.
+	 * @param other the binary number to compare with
+	 * @return -1 if this is smaller than other, 0 if they are equal, 1 if this is bigger than other
+	 */
+	@Override
+	public int compareTo(BigBinary other) {
+		if (!CalculatorMetrics.ENABLED) {
+			return compare(other);
+		}
+		long start = System.nanoTime();
+		int comparison = compare(other);
+		CalculatorMetrics.recordCompare(Math.max(bitLength(), other.bitLength()), System.nanoTime() - start);
+		return comparison;
+	}
+
+
+	/**
+	 * This method is to compare this binary number with another one by value, without any instrumentation.
+	 * @param other the binary number to compare with
+	 * @return -1 if this is smaller than other, 0 if they are equal, 1 if this is bigger than other
+	 */
+	int compare(BigBinary other) {
+		if (negative != other.negative) {
+			return negative ? -1 : 1;
+		}
+		int comparison = LimbArithmetic.compare(words, length, other.words, other.length);
+		return negative ? -comparison : comparison;
+	}
+
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if (!(obj instanceof BigBinary)) {
+			return false;
+		}
+		BigBinary other = (BigBinary) obj;
+		return negative == other.negative && LimbArithmetic.compare(words, length, other.words, other.length) == 0;
+	}
+
+
+	@Override
+	public int hashCode() {
+		int hash = negative ? 1 : 0;
+		for (int i = 0; i < length; i++) {
+			hash = 31 * hash + Long.hashCode(words[i]);
+		}
+		return hash;
+	}
+
+
+	/**
+	 * This method is to render the binary number into its digits, highest digit first, with a negative sign when needed.
+	 * The digits are written in one pass without building an intermediate string.
+	 * @return the rendered characters (e.g., "-101")
+	 * @throws ArithmeticException if the number has more digits than a char array can hold
+	 */
+	public char[] toCharArray() {
+		long bits = Math.max(bitLength(), 1);   // the leading zeros of the top limb are left out
+		checkRenderable(bits);
+		char[] chars = new char[(int) bits + (negative ? 1 : 0)];
+		int pos = 0;
+		if (negative) {
+			chars[pos++] = '-';
+		}
+		LimbArithmetic.renderBinary(words, length, chars, pos);
+		return chars;
+	}
+
+
+	/**
+	 * This method is to render the binary number into a string without leading zeros.
+	 * @return the binary digits with a negative sign when needed (e.g., "-101")
+	 * @throws ArithmeticException if the number has more digits than a string can hold
+	 */
+	@Override
+	public String toString() {
+		return new String(toCharArray());
+	}
+
+
+	/**
+	 * This method is to render the number into digits in base 2, 10 or 16 without leading zeros (e.g., "-255" or "ff").
+	 * @param radix the base of the digits, 2, 10 or 16
+	 * @return the digits with a negative sign when needed, lower case for base 16
+	 * @throws IllegalArgumentException if the base is not 2, 10 or 16
+	 * @throws ArithmeticException if the number has more digits than a string can hold
+	 */
+	public String toString(int radix) {
+		long bits = Math.max(bitLength(), 1);
+		checkRenderable((radix == 2) ? bits : (radix == 16) ? (bits + 3) / 4 : (long) (bits * 0.30103) + 1);    // log10(2) digits for every bit
+		StringBuilder sb = new StringBuilder();
+		if (negative) {
+			sb.append('-');
+		}
+		RadixConversion.append(magnitude(), radix, sb);
+		return sb.toString();
+	}
+
+
+	/**
+	 * This method is to check the digits of a number, with its sign, fit in a char array before rendering it,
+	 * as a product or a shift can be longer than Integer.MAX_VALUE bits.
+	 * @param digits the number of digits
+	 * @throws ArithmeticException if they do not fit
+	 */
+	private void checkRenderable(long digits) {
+		if (digits + (negative ? 1 : 0) > MAX_CHARS) {
+			throw new ArithmeticException("Result too long to render.");
+		}
+	}
+}
@@ -0,0 +1,221 @@
+import java.util.Arrays;
+
+/**
+ * The BinaryAccumulator class is a mutable running total for folding many deltas into one big number.
+ * The total is added to and subtracted from in place: only the limbs of the delta are touched, plus however far the carry or the borrow ripples above them,
+ * so a step costs O(size of the delta) on average instead of O(size of the total). The limbs only grow when a carry goes out of the top limb
+ * (the room is doubled, so growing is amortised too), and the total is only rendered when it is asked for.
+ * The sign is kept apart from the magnitude the same way BigBinary does it. The class is not thread-safe.
+ *
+ * @author Yuxin Xiang
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public final class BinaryAccumulator {
+	private static final int INITIAL_LIMBS = 4;
+
+	private long[] words;        // the limbs of the magnitude, lowest limb first, always zero from length upwards
+	private int length;          // the number of significant limbs
+	private boolean negative;    // to mark a negative total, never set for zero
+	private final long[] single = new long[1];    // the magnitude of a long delta, so adding a long allocates nothing
+
+
+	/**
+	 * The constructor of the BinaryAccumulator class with a total of zero.
+	 */
+	public BinaryAccumulator() {
+		this.words = new long[INITIAL_LIMBS];
+	}
+
+
+	/**
+	 * The constructor of the BinaryAccumulator class with a starting total.
+	 * @param initial the starting total
+	 */
+	public BinaryAccumulator(BigBinary initial) {
+		this.words = Arrays.copyOf(initial.limbs(), Math.max(initial.limbCount(), INITIAL_LIMBS));   // the limbs of initial are never modified
+		Arrays.fill(words, initial.limbCount(), words.length, 0);
+		this.length = initial.limbCount();
+		this.negative = initial.signum() < 0;
+	}
+
+
+	/**
+	 * This method is to add a delta to the total.
+	 * @param delta the binary number to add
+	 * @return this accumulator
+	 */
+	public BinaryAccumulator add(BigBinary delta) {
+		addSigned(delta.limbs(), delta.limbCount(), delta.signum() < 0);
+		return this;
+	}
+
+
+	/**
+	 * This method is to subtract a delta from the total.
+	 * @param delta the binary number to subtract
+	 * @return this accumulator
+	 */
+	public BinaryAccumulator subtract(BigBinary delta) {
+		addSigned(delta.limbs(), delta.limbCount(), delta.signum() > 0);
+		return this;
+	}
+
+
+	/**
+	 * This method is to add a long delta to the total without making a BigBinary of it.
+	 * @param delta the value to add
+	 * @return this accumulator
+	 */
+	public BinaryAccumulator add(long delta) {
+		single[0] = (delta < 0) ? -delta : delta;    // Long.MIN_VALUE stays the same, which is its right unsigned magnitude
+		addSigned(single, delta == 0 ? 0 : 1, delta < 0);
+		return this;
+	}
+
+
+	/**
+	 * This method is to subtract a long delta from the total without making a BigBinary of it.
+	 * @param delta the value to subtract
+	 * @return this accumulator
+	 */
+	public BinaryAccumulator subtract(long delta) {
+		single[0] = (delta < 0) ? -delta : delta;
+		addSigned(single, delta == 0 ? 0 : 1, delta > 0);
+		return this;
+	}
+
+
+	/**
+	 * This method is to set the total back to zero, keeping the limbs for the next totals.
+	 */
+	public void clear() {
+		Arrays.fill(words, 0, length, 0);
+		length = 0;
+		negative = false;
+	}
+
+
+	/**
+	 * This method is to add a signed magnitude to the total in place. When the signs are the same the magnitudes are added,
+	 * otherwise the smaller magnitude is subtracted from the bigger one, and the total takes the sign of the bigger one.
+	 * @param d the limbs of the magnitude of the delta
+	 * @param dLen the number of significant limbs of d
+	 * @param dNegative true if the delta is negative
+	 */
+	private void addSigned(long[] d, int dLen, boolean dNegative) {
+		if (dLen == 0) {
+			return;
+		}
+		if (length == 0 || negative == dNegative) {
+			addMagnitude(d, dLen);
+			negative = dNegative;
+		}
+		else if (LimbArithmetic.compare(words, length, d, dLen) >= 0) {    // different lengths are told apart without a loop
+			subtractMagnitude(d, dLen);
+			if (length == 0) {
+				negative = false;
+			}
+		}
+		else {    // the total is shorter than the delta (or as long), so turning it round costs no more than the delta
+			reverseSubtractMagnitude(d, dLen);
+			negative = dNegative;
+		}
+	}
+
+
+	/**
+	 * This method is to add a magnitude to the magnitude of the total in place.
+	 * @param d the limbs of the magnitude to add
+	 * @param dLen the number of significant limbs of d
+	 */
+	private void addMagnitude(long[] d, int dLen) {
+		ensureCapacity(dLen);
+		long carry = LimbArithmetic.addRange(words, Math.max(length, dLen), d, dLen, words, 0, dLen, 0);
+		int i = dLen;
+		for (; carry != 0; i++) {    // to let the carry ripple up, only as far as it goes
+			ensureCapacity(i + 1);
+			carry = (++words[i] == 0) ? 1 : 0;
+		}
+		length = Math.max(length, i);
+	}
+
+
+	/**
+	 * This method is to subtract a magnitude from the magnitude of the total in place, regarding the total is no less than it.
+	 * @param d the limbs of the magnitude to subtract
+	 * @param dLen the number of significant limbs of d
+	 */
+	private void subtractMagnitude(long[] d, int dLen) {
+		long borrow = LimbArithmetic.subtractRange(words, length, d, dLen, words, 0, dLen, 0);
+		for (int i = dLen; borrow != 0; i++) {    // to let the borrow ripple up, only as far as it goes
+			borrow = (words[i]-- == 0) ? 1 : 0;
+		}
+		length = LimbArithmetic.normalize(words, length);    // only walks down the limbs that became zero
+	}
+
+
+	/**
+	 * This method is to replace the magnitude of the total by a bigger magnitude minus it.
+	 * @param d the limbs of the magnitude to subtract from, bigger than the total
+	 * @param dLen the number of significant limbs of d
+	 */
+	private void reverseSubtractMagnitude(long[] d, int dLen) {
+		ensureCapacity(dLen);
+		LimbArithmetic.subtractRange(d, dLen, words, length, words, 0, dLen, 0);   // every limb of the total is read before it is overwritten
+		length = LimbArithmetic.normalize(words, dLen);
+	}
+
+
+	/**
+	 * This method is to make sure the limbs have room for a number of limbs, doubling the room when they do not.
+	 * @param limbs the number of limbs needed
+	 */
+	private void ensureCapacity(int limbs) {
+		if (limbs > words.length) {
+			words = Arrays.copyOf(words, Math.max(limbs, 2 * words.length));
+		}
+	}
+
+
+	/**
+	 * This method is to get the sign of the total.
+	 * @return -1 if it is negative, 0 if it is zero, 1 if it is positive
+	 */
+	public int signum() {
+		return negative ? -1 : (length == 0 ? 0 : 1);
+	}
+
+
+	/**
+	 * This method is to get the number of significant bits of the magnitude of the total.
+	 * @return the bit length, 0 for zero
+	 */
+	public long bitLength() {
+		return LimbArithmetic.bitLength(words, length);
+	}
+
+
+	/**
+	 * This method is to take a copy of the total, which does not change when the accumulator does.
+	 * @return the total as a binary number
+	 */
+	public BigBinary toBigBinary() {
+		return new BigBinary(Arrays.copyOf(words, length), length, negative);
+	}
+
+
+	/**
+	 * This method is to render the total into a string without leading zeros.
+	 * @return the binary digits with a negative sign when needed (e.g., "-101")
+	 */
+	@Override
+	public String toString() {
+		char[] chars = new char[(int) Math.max(bitLength(), 1) + (negative ? 1 : 0)];
+		LimbArithmetic.renderBinary(words, length, chars, negative ? 1 : 0);
+		if (negative) {
+			chars[0] = '-';
+		}
+		return new String(chars);
+	}
+}
@@ -0,0 +1,550 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The BinaryFiles class calculates the addition and subtraction of binary numbers that are stored as text files of 0/1 digits,
+ * which might be far bigger than the heap. The operands are read backward from their FileChannels in fixed-size chunks,
+ * the carry or borrow bit is carried across the chunk boundaries the same way the calculation carries it across digits
+ * (8 digits at a time through the byte-wide tables of CompiledBitOperations),
+ * and the result is written backward through a buffer of the same size, so the memory used stays the same whatever the input size.
+ * For operands that fit in the heap once packed, the files can also be memory-mapped instead, one window at a time,
+ * so the digits go straight between the mapped bytes and the limbs of a BigBinary without a String in between.
+ *
+ * @author Yuxin Xiang
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public final class BinaryFiles {
+	static final int CHUNK_SIZE = 1 << 16;    // the number of bytes read or written in one go
+	static final long MAP_WINDOW = 1L << 30;  // the number of bytes mapped in one go, as a single mapping cannot exceed 2 GB
+	private static final CompiledBitOperations TABLES = new CompiledBitOperations();   // to add or subtract 8 streamed digits per lookup
+
+
+	private BinaryFiles() {
+	}
+
+
+	/**
+	 * This method is to add the binary numbers stored in two files and write the sum into another file.
+	 * @param xPath the file that holds X
+	 * @param yPath the file that holds Y
+	 * @param outPath the file to write X + Y in, replaced if it exists
+	 * @throws IOException if a file cannot be read or written
+	 * @throws NumberFormatException if an operand file is not a binary number
+	 */
+	public static void add(Path xPath, Path yPath, Path outPath) throws IOException {
+		calculate(xPath, yPath, outPath, false);
+	}
+
+
+	/**
+	 * This method is to subtract the binary number stored in one file from another and write the difference into a third file.
+	 * A negative difference is written with the negative sign in the front, the same way the calculator prints it.
+	 * @param xPath the file that holds X
+	 * @param yPath the file that holds Y
+	 * @param outPath the file to write X - Y in, replaced if it exists
+	 * @throws IOException if a file cannot be read or written
+	 * @throws NumberFormatException if an operand file is not a binary number
+	 */
+	public static void subtract(Path xPath, Path yPath, Path outPath) throws IOException {
+		calculate(xPath, yPath, outPath, true);
+	}
+
+
+	/**
+	 * This method is to run the streaming calculation for either operation and remove the output file if it fails halfway.
+	 * @param xPath the file that holds X
+	 * @param yPath the file that holds Y
+	 * @param outPath the file to write the result in
+	 * @param subtraction true for X - Y, false for X + Y
+	 * @throws IOException if a file cannot be read or written
+	 */
+	private static void calculate(Path xPath, Path yPath, Path outPath, boolean subtraction) throws IOException {
+		try (FileChannel xChannel = FileChannel.open(xPath, StandardOpenOption.READ);
+				FileChannel yChannel = FileChannel.open(yPath, StandardOpenOption.READ);
+				FileChannel outChannel = FileChannel.open(outPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+						StandardOpenOption.READ, StandardOpenOption.TRUNCATE_EXISTING)) {
+			ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);    // shared by the scans that run before the calculation
+			Operand x = Operand.locate(xChannel, buffer);
+			Operand y = Operand.locate(yChannel, buffer);
+
+			boolean negative = false;
+			if (subtraction && x.length() == y.length()) {    // the equal digits at the top cancel out, so only the digits below them are streamed
+				long prefix = commonPrefix(x, y);
+				x = x.withoutHighest(prefix);
+				y = y.withoutHighest(prefix);
+			}
+			if (subtraction && compare(x, y) < 0) {   // swap the sequence and add a negative sign in the front of the result
+				Operand tmp = x; x = y; y = tmp;
+				negative = true;
+			}
+			streamDigits(x, y, outChannel, negative, subtraction);
+		}
+		catch (IOException | RuntimeException e) {
+			Files.deleteIfExists(outPath);
+			throw e;
+		}
+	}
+
+
+	/**
+	 * This method is to compare the two operands from the highest digit down, stopping at the first digit that differs.
+	 * @param x the first operand
+	 * @param y the second operand
+	 * @return -1 if x is smaller than y, 0 if they are equal, 1 if x is bigger than y
+	 * @throws IOException if an operand cannot be read
+	 */
+	private static int compare(Operand x, Operand y) throws IOException {
+		if (x.length() != y.length()) {    // x and y have different lengths, must be unequal
+			return (x.length() < y.length()) ? -1 : 1;
+		}
+		ByteBuffer xBuffer = ByteBuffer.allocate(CHUNK_SIZE);
+		ByteBuffer yBuffer = ByteBuffer.allocate(CHUNK_SIZE);
+		for (long offset = 0; offset < x.length(); offset += CHUNK_SIZE) {
+			int n = (int) Math.min(CHUNK_SIZE, x.length() - offset);
+			readFully(x.channel, xBuffer, x.start + offset, n);
+			readFully(y.channel, yBuffer, y.start + offset, n);
+			for (int i = 0; i < n; i++) {
+				byte a = validDigit(xBuffer.get(i)), b = validDigit(yBuffer.get(i));
+				if (a != b) {
+					return (a < b) ? -1 : 1;
+				}
+			}
+		}
+		return 0;
+	}
+
+
+	/**
+	 * This method is to count the digits two operands of the same length have in common from the highest digit down,
+	 * comparing and checking 8 digits at a time. Those digits are not read again by the subtraction, so they are checked here.
+	 * @param x the first operand
+	 * @param y the second operand, as long as x
+	 * @return the number of equal digits at the top, the length of the operands if they are equal
+	 * @throws IOException if an operand cannot be read
+	 * @throws NumberFormatException if one of the equal digits is not a binary digit
+	 */
+	private static long commonPrefix(Operand x, Operand y) throws IOException {
+		ByteBuffer xBuffer = ByteBuffer.allocate(CHUNK_SIZE);    // big-endian, so the first digit is the highest byte of a long
+		ByteBuffer yBuffer = ByteBuffer.allocate(CHUNK_SIZE);
+		for (long offset = 0; offset < x.length(); offset += CHUNK_SIZE) {
+			int n = (int) Math.min(CHUNK_SIZE, x.length() - offset);
+			readFully(x.channel, xBuffer, x.start + offset, n);
+			readFully(y.channel, yBuffer, y.start + offset, n);
+			int i = 0;
+			for (; i + 8 <= n; i += 8) {
+				long a = xBuffer.getLong(i), b = yBuffer.getLong(i);
+				if (!BinaryScanner.isBinaryDigits(a) || !BinaryScanner.isBinaryDigits(b)) {
+					throw new NumberFormatException("Not a binary number!");
+				}
+				if (a != b) {
+					return offset + i + (Long.numberOfLeadingZeros(a ^ b) >>> 3);
+				}
+			}
+			for (; i < n; i++) {
+				if (validDigit(xBuffer.get(i)) != validDigit(yBuffer.get(i))) {
+					return offset + i;
+				}
+			}
+		}
+		return x.length();
+	}
+
+
+	/**
+	 * This method is to walk both operands from the lowest digit and write the sum or difference of every digit,
+	 * then move the result over its leading zeros once the highest digit is known.
+	 * @param x the operand to add to or subtract from, no less than y for a subtraction
+	 * @param y the operand to add or subtract
+	 * @param out the channel to write the result in
+	 * @param negative true if the result needs a negative sign in the front
+	 * @param subtraction true for x - y, false for x + y
+	 * @throws IOException if a file cannot be read or written
+	 */
+	private static void streamDigits(Operand x, Operand y, FileChannel out, boolean negative, boolean subtraction) throws IOException {
+		long width = Math.max(x.length(), y.length()) + 1;     // one more digit for the final carry
+		long first = negative ? 1 : 0;                          // the position of the highest digit in the output file
+		BackwardReader xReader = new BackwardReader(x);
+		BackwardReader yReader = new BackwardReader(y);
+		BackwardWriter writer = new BackwardWriter(out, first + width);
+		long highestOne = -1;    // the position of the highest 1 written so far
+		int bitToCarry = 0;      // the carry bit for an addition, the borrow bit for a subtraction
+
+		for (long pos = first + width; pos > first; ) {    // 8 digits at a time, pos is right after the lowest digit of the group
+			int n = (int) Math.min(8, pos - first);
+			int a = xReader.previousDigits8();
+			int b = yReader.previousDigits8();
+			int r = subtraction ? TABLES.subByte(a, b, bitToCarry) : TABLES.addByte(a, b, bitToCarry);
+			bitToCarry = r >>> 8;
+			int digits = r & ((1 << n) - 1);    // the last group might be shorter than 8 digits
+			writer.previousDigits(digits, n);
+			if (digits != 0) {
+				highestOne = pos - 1 - (31 - Integer.numberOfLeadingZeros(digits));
+			}
+			pos -= n;
+		}
+		writer.flush();
+
+		if (highestOne < 0) {    // the result is zero, which is still written as a single digit
+			out.truncate(0);
+			writeFully(out, ByteBuffer.wrap(new byte[] {'0'}), 0);
+			return;
+		}
+		long digits = first + width - highestOne;
+		moveDown(out, highestOne, first, digits);    // to remove the leading zeros
+		out.truncate(first + digits);
+		if (negative) {
+			writeFully(out, ByteBuffer.wrap(new byte[] {'-'}), 0);
+		}
+	}
+
+
+	/**
+	 * This method is to move a region of a file to a lower position, one chunk at a time from the front,
+	 * so no byte is overwritten before it is moved.
+	 * @param channel the file to move the bytes in
+	 * @param from the position the region starts at
+	 * @param to the position to move the region to, no bigger than from
+	 * @param count the number of bytes in the region
+	 * @throws IOException if the file cannot be read or written
+	 */
+	private static void moveDown(FileChannel channel, long from, long to, long count) throws IOException {
+		if (from == to) {
+			return;
+		}
+		ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+		for (long offset = 0; offset < count; offset += CHUNK_SIZE) {
+			int n = (int) Math.min(CHUNK_SIZE, count - offset);
+			readFully(channel, buffer, from + offset, n);
+			buffer.flip();
+			writeFully(channel, buffer, to + offset);
+		}
+	}
+
+
+	/**
+	 * This method is to read the binary number stored in a file by memory-mapping it, one window at a time.
+	 * The digits are checked and packed into limbs straight from the mapped bytes, skipping the leading zeros and the trailing white spaces.
+	 * @param path the file that holds the binary number
+	 * @return the binary number in the file
+	 * @throws IOException if the file cannot be read
+	 * @throws NumberFormatException if the file is not a binary number
+	 */
+	public static BigBinary read(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			long end = mappedEnd(channel);
+			long start = mappedStart(channel, end);
+			long digits = end - start;
+			if (digits > (long) Integer.MAX_VALUE * LimbArithmetic.LIMB_BITS) {
+				throw new IOException("The binary number is too big to be read into memory.");
+			}
+			long[] words = new long[(int) ((digits + LimbArithmetic.LIMB_BITS - 1) / LimbArithmetic.LIMB_BITS)];
+
+			for (long windowStart = start; windowStart < end; windowStart += MAP_WINDOW) {
+				int n = (int) Math.min(MAP_WINDOW, end - windowStart);
+				MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, n);
+				long bit = end - 1 - windowStart;    // the bit the first byte of the window stands for, counted from the lowest digit
+				for (int i = 0; i < n; i++, bit--) {
+					if (validDigit(window.get(i)) == '1') {
+						words[(int) (bit >>> 6)] |= 1L << bit;
+					}
+				}
+			}
+			return new BigBinary(words, words.length, false);
+		}
+	}
+
+
+	/**
+	 * This method is to write a binary number into a file by memory-mapping it, one window at a time,
+	 * with the digits written straight from the limbs into the mapped bytes.
+	 * @param value the binary number to write
+	 * @param path the file to write in, replaced if it exists
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void write(BigBinary value, Path path) throws IOException {
+		long[] words = value.limbs();
+		long bits = Math.max(value.bitLength(), 1);    // zero is still written as a single digit
+		long size = bits + (value.signum() < 0 ? 1 : 0);
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+				StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			long bit = bits - 1;    // the next digit to write, counted from the lowest digit
+			for (long windowStart = 0; windowStart < size; windowStart += MAP_WINDOW) {
+				int n = (int) Math.min(MAP_WINDOW, size - windowStart);
+				MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_WRITE, windowStart, n);
+				int i = 0;
+				if (windowStart == 0 && value.signum() < 0) {
+					window.put(i++, (byte) '-');
+				}
+				for (; i < n; i++, bit--) {
+					long digit = (value.limbCount() == 0) ? 0 : (words[(int) (bit >>> 6)] >>> bit) & 1;
+					window.put(i, (byte) ('0' + digit));
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * This method is to find where the digits of a mapped file end, skipping the trailing white spaces from the back.
+	 * @param channel the operand file
+	 * @return the position right after the lowest digit
+	 * @throws IOException if the file cannot be read
+	 * @throws NumberFormatException if the file holds no digit at all
+	 */
+	private static long mappedEnd(FileChannel channel) throws IOException {
+		long end = channel.size();
+		while (end > 0) {
+			int n = (int) Math.min(MAP_WINDOW, end);
+			MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, end - n, n);
+			for (int i = n - 1; i >= 0; i--, end--) {
+				if (!isTrailingSpace(window.get(i))) {
+					return end;
+				}
+			}
+		}
+		throw new NumberFormatException("Not a binary number!");
+	}
+
+
+	/**
+	 * This method is to find where the significant digits of a mapped file start, skipping and checking the leading zeros.
+	 * @param channel the operand file
+	 * @param end the position right after the lowest digit
+	 * @return the position of the highest 1, or end if the number is zero
+	 * @throws IOException if the file cannot be read
+	 * @throws NumberFormatException if a character other than 0 or 1 comes before the first 1
+	 */
+	private static long mappedStart(FileChannel channel, long end) throws IOException {
+		long start = 0;
+		while (start < end) {
+			int n = (int) Math.min(MAP_WINDOW, end - start);
+			MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, start, n);
+			for (int i = 0; i < n; i++, start++) {
+				if (validDigit(window.get(i)) == '1') {
+					return start;
+				}
+			}
+		}
+		return start;
+	}
+
+
+	/**
+	 * This method is to check that a byte is the digit 0 or 1.
+	 * @param b the byte to check
+	 * @return the byte itself
+	 * @throws NumberFormatException if the byte is not a binary digit
+	 */
+	static byte validDigit(byte b) {
+		if ((b | 1) != '1') {    // only '0' (0x30) and '1' (0x31) give '1' once the lowest bit is set
+			throw new NumberFormatException("Not a binary number!");
+		}
+		return b;
+	}
+
+
+	/**
+	 * This method is to check if a byte is one of the white spaces that are allowed after the digits (e.g., the final line break).
+	 * @param b the byte to check
+	 * @return true if the byte is a trailing white space
+	 */
+	static boolean isTrailingSpace(byte b) {
+		return b == '\n' || b == '\r' || b == ' ' || b == '\t';
+	}
+
+
+	/**
+	 * This method is to read an exact number of bytes from a position of a channel into the front of a buffer.
+	 * @param channel the channel to read from
+	 * @param buffer the buffer to read into, cleared first
+	 * @param position the position in the channel to read from
+	 * @param n the number of bytes to read
+	 * @throws IOException if the channel ends before n bytes are read
+	 */
+	static void readFully(FileChannel channel, ByteBuffer buffer, long position, int n) throws IOException {
+		buffer.clear().limit(n);
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, position + buffer.position());
+			if (read < 0) {
+				throw new IOException("Unexpected end of file.");
+			}
+		}
+	}
+
+
+	/**
+	 * This method is to write all the remaining bytes of a buffer at a position of a channel.
+	 * @param channel the channel to write in
+	 * @param buffer the buffer to write out
+	 * @param position the position in the channel to write at
+	 * @throws IOException if the channel cannot be written
+	 */
+	static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			position += channel.write(buffer, position);
+		}
+	}
+
+
+	/**
+	 * The Operand class marks where the significant digits of an operand file are (i.e., after the leading zeros and before the trailing white spaces).
+	 */
+	static final class Operand {
+		final FileChannel channel;
+		final long start;    // the position of the highest digit to read, the highest significant one once located
+		final long end;      // the position right after the lowest digit
+
+
+		Operand(FileChannel channel, long start, long end) {
+			this.channel = channel;
+			this.start = start;
+			this.end = end;
+		}
+
+
+		long length() {
+			return end - start;
+		}
+
+
+		/**
+		 * This method is to leave out the highest digits of an operand.
+		 * @param n the number of digits to leave out
+		 * @return the operand made of the remaining lower digits
+		 */
+		Operand withoutHighest(long n) {
+			return new Operand(channel, start + n, end);
+		}
+
+
+		/**
+		 * This method is to find the significant digits of an operand file, checking the leading zeros are binary digits on the way.
+		 * The remaining digits are checked when they are read by the calculation.
+		 * @param channel the operand file
+		 * @param buffer the buffer to read the file through
+		 * @return the operand with its significant digits located
+		 * @throws IOException if the file cannot be read
+		 * @throws NumberFormatException if the file holds no digit at all or a character other than 0 or 1 before its first 1
+		 */
+		static Operand locate(FileChannel channel, ByteBuffer buffer) throws IOException {
+			long end = channel.size();
+			trailing:
+			while (end > 0) {    // to skip the trailing white spaces, one chunk at a time from the back
+				int n = (int) Math.min(CHUNK_SIZE, end);
+				readFully(channel, buffer, end - n, n);
+				for (int i = n - 1; i >= 0; i--) {
+					if (!isTrailingSpace(buffer.get(i))) {
+						break trailing;
+					}
+					end--;
+				}
+			}
+			if (end == 0) {
+				throw new NumberFormatException("Not a binary number!");
+			}
+			long start = 0;
+			leading:
+			while (start < end) {    // to skip the leading zeros, one chunk at a time from the front
+				int n = (int) Math.min(CHUNK_SIZE, end - start);
+				readFully(channel, buffer, start, n);
+				for (int i = 0; i < n; i++) {
+					if (validDigit(buffer.get(i)) == '1') {
+						break leading;
+					}
+					start++;
+				}
+			}
+			return new Operand(channel, start, end);
+		}
+	}
+
+
+	/**
+	 * The BackwardReader class reads the digits of an operand from the lowest one, one chunk at a time,
+	 * and gives 0 once the highest digit has been passed, the same way a shorter number is extended with zeros.
+	 */
+	static final class BackwardReader {
+		private final Operand operand;
+		private final ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+		private long chunkStart;    // the position in the file of the first byte in the buffer
+		private int index;          // the index in the buffer of the next digit to give
+
+
+		BackwardReader(Operand operand) {
+			this.operand = operand;
+			this.chunkStart = operand.end;
+		}
+
+
+		int previousDigits8() throws IOException {
+			int digits = 0;
+			for (int i = 0; i < 8; i++) {
+				digits |= previousDigit() << i;
+			}
+			return digits;
+		}
+
+
+		int previousDigit() throws IOException {
+			if (index == 0) {
+				if (chunkStart == operand.start) {    // the operand is finished
+					return 0;
+				}
+				int n = (int) Math.min(CHUNK_SIZE, chunkStart - operand.start);
+				chunkStart -= n;
+				readFully(operand.channel, buffer, chunkStart, n);
+				index = n;
+			}
+			return validDigit(buffer.get(--index)) - '0';
+		}
+	}
+
+
+	/**
+	 * The BackwardWriter class writes the digits of the result from the lowest one, filling each chunk from its end
+	 * and writing it out once it is full.
+	 */
+	static final class BackwardWriter {
+		private final FileChannel channel;
+		private final ByteBuffer buffer = ByteBuffer.allocate(CHUNK_SIZE);
+		private long chunkEnd;    // the position in the file right after the last byte in the buffer
+		private int index;        // the index in the buffer of the previous digit written
+
+
+		BackwardWriter(FileChannel channel, long end) {
+			this.channel = channel;
+			this.chunkEnd = end;
+			this.index = CHUNK_SIZE;
+		}
+
+
+		void previousDigits(int digits, int n) throws IOException {
+			for (int i = 0; i < n; i++) {
+				previousDigit((digits >>> i) & 1);
+			}
+		}
+
+
+		void previousDigit(int digit) throws IOException {
+			if (index == 0) {
+				flush();
+			}
+			buffer.put(--index, (byte) ('0' + digit));
+		}
+
+
+		void flush() throws IOException {
+			int n = CHUNK_SIZE - index;
+			buffer.limit(CHUNK_SIZE).position(index);
+			writeFully(channel, buffer, chunkEnd - n);
+			chunkEnd -= n;
+			index = CHUNK_SIZE;
+		}
+	}
+}
@@ -0,0 +1,132 @@
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+
+/**
+ * The BinaryScanner class scans binary digits held as Latin-1 bytes (e.g., from String.getBytes(StandardCharsets.ISO_8859_1)) 8 digits at a time,
+ * reading every 8 bytes as a single long (SWAR, i.e., SIMD within a register). XOR with '0' in every byte turns a digit into 0 or 1,
+ * so a byte is a valid digit exactly when no bit other than its lowest is left, and the 8 lowest bits are gathered into one byte
+ * by a single multiplication. A character that is not in Latin-1 becomes '?', so it is never taken for a digit.
+ *
+ * @author Yuxin Xiang
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public final class BinaryScanner {
+	private static final long ZEROS = 0x3030303030303030L;       // '0' in every byte
+	private static final long NOT_DIGIT = 0xFEFEFEFEFEFEFEFEL;   // the bits left in a byte after XOR with '0' if it is not a digit
+	private static final long GATHER = 0x8040201008040201L;      // moves the lowest bit of byte i to bit 63 - i
+
+
+	private BinaryScanner() {
+	}
+
+
+	/**
+	 * The Longs class holds the view of a byte array as longs. Making it bootstraps method handles, which takes several milliseconds
+	 * at startup, so it is kept apart and only made the first time 8 bytes are read at once, and a calculation on short operands never pays for it.
+	 */
+	private static final class Longs {
+		static final VarHandle LONGS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+	}
+
+
+	/**
+	 * This method is to check if a part of a byte array only contains one or more digits 0 or 1.
+	 * @param digits the bytes to check
+	 * @param from the index of the first byte to check
+	 * @param to the index right after the last byte to check
+	 * @return true if the part of the array is made of binary digits only
+	 */
+	static boolean isBinaryDigits(byte[] digits, int from, int to) {
+		if (from >= to) {
+			return false;
+		}
+		long invalid = 0;
+		int i = from;
+		for (; i + 8 <= to; i += 8) {
+			invalid |= ((long) Longs.LONGS.get(digits, i) ^ ZEROS) & NOT_DIGIT;
+		}
+		for (; i < to; i++) {
+			invalid |= (digits[i] | 1) ^ '1';    // 0 only for '0' (0x30) and '1' (0x31), so no branch depends on the digit
+		}
+		return invalid == 0;
+	}
+
+
+	/**
+	 * This method is to check if 8 bytes read as a single long are all digits 0 or 1, whatever their byte order.
+	 * @param eightBytes the 8 bytes
+	 * @return true if every byte is '0' or '1'
+	 */
+	static boolean isBinaryDigits(long eightBytes) {
+		return ((eightBytes ^ ZEROS) & NOT_DIGIT) == 0;
+	}
+
+
+	/**
+	 * This method is to find the first byte in a part of a byte array that is not the digit 0 (i.e., where the leading zeros end).
+	 * @param digits the bytes to search
+	 * @param from the index of the first byte to search
+	 * @param to the index right after the last byte to search
+	 * @return the index of the first byte that is not '0', or to if there is none
+	 */
+	static int firstNonZero(byte[] digits, int from, int to) {
+		int i = from;
+		for (; i + 8 <= to; i += 8) {
+			long v = (long) Longs.LONGS.get(digits, i) ^ ZEROS;    // a byte is left zero only if it was '0'
+			if (v != 0) {
+				return i + (Long.numberOfTrailingZeros(v) >>> 3);   // the lowest byte holds the first digit
+			}
+		}
+		for (; i < to; i++) {
+			if (digits[i] != '0') {
+				return i;
+			}
+		}
+		return to;
+	}
+
+
+	/**
+	 * This method is to validate a part of a byte array as a binary number and pack it into limbs in the same pass,
+	 * going from the lowest digit up, 64 digits (i.e., 8 reads of 8 bytes) for every limb.
+	 * Leading zeros are packed as zero limbs at the top, which LimbArithmetic.normalize drops.
+	 * @param digits the bytes that hold the binary number, highest digit first
+	 * @param from the index of the highest digit
+	 * @param to the index right after the lowest digit
+	 * @return the limbs after the conversion, lowest limb first, might have zero limbs at the top
+	 * @throws NumberFormatException if the part of the array is empty or holds a byte other than '0' or '1'
+	 */
+	static long[] pack(byte[] digits, int from, int to) {
+		if (from >= to) {
+			throw new NumberFormatException("Not a binary number!");
+		}
+		long[] words = new long[(to - from + LimbArithmetic.LIMB_BITS - 1) / LimbArithmetic.LIMB_BITS];
+		long invalid = 0;
+		int pos = to;    // the index right after the next digit to pack
+		int w = 0;
+		for (; pos - from >= LimbArithmetic.LIMB_BITS; pos -= LimbArithmetic.LIMB_BITS) {
+			long word = 0;
+			for (int c = 0; c < 8; c++) {    // the 8 digits right below pos - 8c are the bits 8c to 8c + 7 of the limb
+				long v = (long) Longs.LONGS.get(digits, pos - 8 * c - 8) ^ ZEROS;
+				invalid |= v & NOT_DIGIT;
+				word |= ((v * GATHER) >>> 56) << (8 * c);
+			}
+			words[w++] = word;
+		}
+		long word = 0;    // the top limb, if the digits do not fill it
+		for (int bit = 0; pos > from; bit++) {
+			int v = digits[--pos] ^ '0';
+			invalid |= v & ~1;
+			word |= (long) (v & 1) << bit;
+		}
+		if (w < words.length) {
+			words[w] = word;
+		}
+		if (invalid != 0) {
+			throw new NumberFormatException("Not a binary number!");
+		}
+		return words;
+	}
+}
@@ -0,0 +1,411 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.ProtocolException;
+import java.net.SocketAddress;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.AsynchronousCloseException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * The CalculationServer class serves calculations over a local TCP port or a Unix domain socket, speaking the binary protocol of WireFormat,
+ * so another service can keep one connection open instead of starting a JVM and piping text through it for every calculation.
+ * The accepted connections are shared out between a few event loops, each one a thread with its own selector that serves its connections
+ * without blocking. Every connection has a direct buffer for the requests and one for the responses, which grow when a frame does not fit
+ * and go back to their first size once they are empty, and a client may send several requests before reading the responses, which come back in the same order.
+ * The requests are only served while fewer than BUFFER_BYTES of responses are waiting to be written, so a client that does not read its responses
+ * makes the server stop serving (and reading) its requests instead of holding on to more and more responses.
+ * A connection that sends a frame length out of range is closed, as the start of the next frame cannot be found.
+ * A multiplication or a shift whose result could not be sent is turned down before it is carried out, and a request that still fails
+ * (even by running out of memory) gets an error response or has its connection closed, so the event loop keeps serving the other connections.
+ *
+ * @author Yuxin Xiang
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public final class CalculationServer implements Closeable {
+	private static final int BUFFER_BYTES = 1 << 16;    // the size each buffer of a connection starts with, and the most responses served ahead of the client
+	private static final int MAX_BUFFER_BYTES = Integer.MAX_VALUE - 8;    // the biggest buffer that can be allocated
+
+	private final ServerSocketChannel server;
+	private final SocketAddress address;
+	private final EventLoop[] loops;
+	private final ResultCache cache;    // null to carry out every calculation
+	private volatile boolean closed;
+
+
+	/**
+	 * The constructor of the CalculationServer class, which binds the address but does not accept connections until serve is called.
+	 * @param address the address to listen on, an InetSocketAddress or a UnixDomainSocketAddress
+	 * @param threads the number of event loops, at least 1
+	 * @param cache the cache to serve repeated calculations from, null to carry out every calculation
+	 * @throws IOException if the address cannot be bound (e.g., the port is in use or the socket file already exists)
+	 */
+	public CalculationServer(SocketAddress address, int threads, ResultCache cache) throws IOException {
+		if (threads < 1) {
+			throw new IllegalArgumentException("The number of threads must be a positive integer.");
+		}
+		this.server = (address instanceof UnixDomainSocketAddress) ? ServerSocketChannel.open(StandardProtocolFamily.UNIX) : ServerSocketChannel.open();
+		this.server.bind(address);
+		this.address = server.getLocalAddress();    // the port picked by the system if port 0 was given
+		this.cache = cache;
+		this.loops = new EventLoop[threads];
+		for (int i = 0; i < threads; i++) {
+			loops[i] = new EventLoop(Selector.open());
+		}
+	}
+
+
+	/**
+	 * This method is to get the address the server listens on.
+	 * @return the bound address
+	 */
+	public SocketAddress address() {
+		return address;
+	}
+
+
+	/**
+	 * This method is to start the event loops and accept connections on the calling thread until the server is closed.
+	 * @throws IOException if accepting fails for any other reason than the server being closed
+	 */
+	public void serve() throws IOException {
+		for (int i = 0; i < loops.length; i++) {
+			Thread thread = new Thread(loops[i], "calculation-server-" + i);
+			thread.setDaemon(true);
+			thread.start();
+		}
+		int next = 0;
+		try {
+			while (!closed) {
+				SocketChannel channel = server.accept();
+				loops[next].add(channel);
+				next = (next + 1) % loops.length;
+			}
+		}
+		catch (AsynchronousCloseException e) {    // closed while waiting for a connection
+		}
+	}
+
+
+	/**
+	 * This method is to stop accepting connections, close the open ones and remove the socket file of a Unix domain socket.
+	 * @throws IOException if the server or the socket file cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+		closed = true;
+		server.close();
+		for (EventLoop loop : loops) {
+			loop.selector.wakeup();
+		}
+		if (address instanceof UnixDomainSocketAddress) {
+			Files.deleteIfExists(((UnixDomainSocketAddress) address).getPath());
+		}
+	}
+
+
+	/**
+	 * This method is to allocate a buffer for a connection.
+	 * @param capacity the size of the buffer
+	 * @return a direct buffer in little-endian order
+	 */
+	private static ByteBuffer allocate(int capacity) {
+		return ByteBuffer.allocateDirect(capacity).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+
+	/**
+	 * This method is to swap a buffer for a bigger one with the same content, which the connection keeps from then on.
+	 * @param buffer the buffer in write mode (i.e., its position is the end of the content)
+	 * @param capacity the smallest size needed
+	 * @return the bigger buffer in write mode
+	 */
+	private static ByteBuffer grow(ByteBuffer buffer, int capacity) {
+		ByteBuffer bigger = allocate(Math.max(capacity, (int) Math.min(MAX_BUFFER_BYTES, 2L * buffer.capacity())));
+		buffer.flip();
+		return bigger.put(buffer);
+	}
+
+
+	/**
+	 * This method is to swap an empty buffer that has grown for one of the first size, so a single big frame does not keep its memory
+	 * for as long as the connection is open.
+	 * @param buffer the buffer in write mode
+	 * @return a buffer of BUFFER_BYTES if the given one is empty and bigger, otherwise the given one
+	 */
+	private static ByteBuffer shrink(ByteBuffer buffer) {
+		return (buffer.position() == 0 && buffer.capacity() > BUFFER_BYTES) ? allocate(BUFFER_BYTES) : buffer;
+	}
+
+
+	/**
+	 * This method is to check if a calculation would have more bits than a response can hold, before carrying it out.
+	 * Only a multiplication and a shift to the left can make a result much longer than its operands, whose size the frame already bounds.
+	 * @param op the operation
+	 * @param x the binary number X
+	 * @param y the binary number Y, null for a unary operation
+	 * @return true if the result would be too big to send
+	 */
+	private static boolean resultTooBig(Operation op, BigBinary x, BigBinary y) {
+		long maxBits = (long) WireFormat.MAX_LIMBS * LimbArithmetic.LIMB_BITS;
+		if (op == Operation.MULTIPLY) {
+			return x.bitLength() + y.bitLength() > maxBits;
+		}
+		boolean left = (op == Operation.SHIFT_LEFT && y.signum() > 0) || (op == Operation.SHIFT_RIGHT && y.signum() < 0);
+		if (!left || x.signum() == 0) {
+			return false;
+		}
+		return y.bitLength() >= 63 || x.bitLength() + y.limbs()[0] > maxBits;    // a distance of 63 bits or more is far beyond any frame
+	}
+
+
+	/**
+	 * The EventLoop class is a thread that serves the connections handed to it with a single selector.
+	 */
+	private final class EventLoop implements Runnable {
+		final Selector selector;
+		private final Queue<SocketChannel> added = new ConcurrentLinkedQueue<>();   // accepted but not registered yet
+
+
+		EventLoop(Selector selector) {
+			this.selector = selector;
+		}
+
+
+		/**
+		 * This method is to hand a new connection to the loop, which registers it on its own thread.
+		 * @param channel the accepted connection
+		 */
+		void add(SocketChannel channel) {
+			added.add(channel);
+			selector.wakeup();
+		}
+
+
+		@Override
+		public void run() {
+			try {
+				while (!closed) {
+					selector.select(this::ready);    // no set of selected keys is built
+					for (SocketChannel channel; (channel = added.poll()) != null; ) {
+						channel.configureBlocking(false);
+						channel.register(selector, SelectionKey.OP_READ, new Connection(channel));
+					}
+				}
+			}
+			catch (IOException e) {
+				System.err.println("The calculation server stopped: " + e.getMessage());
+			}
+			finally {
+				for (SelectionKey key : selector.keys()) {
+					((Connection) key.attachment()).close();
+				}
+				try {
+					selector.close();
+				}
+				catch (IOException e) {
+				}
+			}
+		}
+
+
+		/**
+		 * This method is to serve a connection that can be read from or written to, closing it if it fails or the client closed it.
+		 * @param key the key of the connection
+		 */
+		private void ready(SelectionKey key) {
+			Connection connection = (Connection) key.attachment();
+			try {
+				if (key.isReadable()) {
+					connection.read(key);
+				}
+				else if (key.isWritable()) {
+					connection.write(key);
+				}
+			}
+			catch (IOException e) {    // e.g., the client reset the connection
+				connection.close();
+			}
+			catch (RuntimeException | OutOfMemoryError e) {    // only this connection is lost, the loop carries on serving the others
+				connection.close();
+			}
+		}
+	}
+
+
+	/**
+	 * The Connection class holds the buffers of a single client connection.
+	 */
+	private final class Connection {
+		private final SocketChannel channel;
+		private ByteBuffer in = allocate(BUFFER_BYTES);     // the requests read but not served yet, in write mode
+		private ByteBuffer out = allocate(BUFFER_BYTES);    // the responses not written yet, in write mode
+
+
+		Connection(SocketChannel channel) {
+			this.channel = channel;
+		}
+
+
+		/**
+		 * This method is to read what the client sent, serve the complete requests in it and write the responses.
+		 * @param key the key of the connection
+		 * @throws IOException if the connection fails
+		 */
+		void read(SelectionKey key) throws IOException {
+			if (channel.read(in) < 0) {
+				close();
+				return;
+			}
+			write(key);
+		}
+
+
+		/**
+		 * This method is to write the responses and serve the requests left in the input buffer for as long as the client takes the responses.
+		 * Reading stops while some responses are left unwritten, and serving stops once BUFFER_BYTES of them are waiting,
+		 * so a client that does not read its responses cannot make the server hold on to more and more of them.
+		 * The requests not served yet stay in the input buffer until the output buffer has been written.
+		 * @param key the key of the connection
+		 * @throws IOException if the connection fails
+		 */
+		void write(SelectionKey key) throws IOException {
+			do {
+				out.flip();
+				channel.write(out);
+				out.compact();
+				if (out.position() > 0) {
+					key.interestOps(SelectionKey.OP_WRITE);
+					return;
+				}
+				out = shrink(out);
+			} while (serveRequests());
+			if (channel.isOpen()) {    // not closed for a bad frame length
+				in = shrink(in);
+				key.interestOps(SelectionKey.OP_READ);
+			}
+		}
+
+
+		/**
+		 * This method is to serve the complete requests in the input buffer until BUFFER_BYTES of responses are waiting,
+		 * growing the input buffer if the next frame does not fit in it.
+		 * @return true if any request was served, so there are responses to write
+		 */
+		private boolean serveRequests() {
+			in.flip();
+			boolean served = false;
+			int needed = 0;    // the size of an incomplete frame that does not fit in the buffer
+			while (in.remaining() >= WireFormat.LENGTH_BYTES && out.position() < BUFFER_BYTES) {
+				int length = in.getInt(in.position());
+				if (length < 1 || length > WireFormat.MAX_FRAME_BYTES) {
+					close();
+					return false;
+				}
+				int end = in.position() + WireFormat.LENGTH_BYTES + length;
+				if (end > in.limit()) {
+					needed = WireFormat.LENGTH_BYTES + length;
+					break;
+				}
+				int limit = in.limit();
+				in.position(in.position() + WireFormat.LENGTH_BYTES).limit(end);
+				serve(in);
+				in.limit(limit).position(end);
+				served = true;
+			}
+			in.compact();
+			if (needed > in.capacity()) {
+				in = grow(in, needed);
+			}
+			return served;
+		}
+
+
+		/**
+		 * This method is to serve a single request and put its response in the output buffer.
+		 * @param frame the buffer positioned at the opcode and limited to the end of the frame
+		 */
+		private void serve(ByteBuffer frame) {
+			try {
+				Operation op = WireFormat.operation(frame.get());
+				if (op == null) {
+					throw new ProtocolException("Invalid operation.");
+				}
+				BigBinary x = WireFormat.getOperand(frame);
+				BigBinary y = op.isUnary() ? null : WireFormat.getOperand(frame);
+				if (frame.hasRemaining()) {
+					throw new ProtocolException("Invalid frame.");
+				}
+				if (resultTooBig(op, x, y)) {    // checked up front, as building such a result could run the server out of memory
+					throw new ArithmeticException("Result too big.");
+				}
+				BigBinary result = (cache == null) ? op.apply(x, y) : cache.apply(op, x, y);
+				if (result.limbCount() > WireFormat.MAX_LIMBS) {
+					throw new ArithmeticException("Result too big.");
+				}
+				reserve(WireFormat.resultBytes(result));
+				WireFormat.putResult(out, result);
+			}
+			catch (ProtocolException e) {
+				if (CalculatorMetrics.ENABLED) {
+					CalculatorMetrics.validationFailure(e.getMessage());
+				}
+				error(e.getMessage());
+			}
+			catch (ArithmeticException e) {    // e.g., a division by zero
+				error(e.getMessage());
+			}
+			catch (OutOfMemoryError e) {    // the operands and the partial result are garbage by now, so there is room for the response
+				error("Out of memory.");
+			}
+		}
+
+
+		/**
+		 * This method is to put an error response in the output buffer.
+		 * @param message the message for the client
+		 */
+		private void error(String message) {
+			byte[] bytes = message.getBytes(StandardCharsets.UTF_8);
+			reserve(WireFormat.LENGTH_BYTES + 1 + bytes.length);
+			WireFormat.putError(out, bytes);
+		}
+
+
+		/**
+		 * This method is to make sure the output buffer has room for a response.
+		 * @param bytes the size of the response
+		 */
+		private void reserve(int bytes) {
+			if (out.remaining() < bytes) {
+				long capacity = (long) out.position() + bytes;
+				if (capacity > MAX_BUFFER_BYTES) {
+					throw new ArithmeticException("Result too big.");
+				}
+				out = grow(out, (int) capacity);
+			}
+		}
+
+
+		/**
+		 * This method is to close the connection, which also cancels its key.
+		 */
+		void close() {
+			try {
+				channel.close();
+			}
+			catch (IOException e) {
+			}
+		}
+	}
+}
@@ -0,0 +1,348 @@
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToLongFunction;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The CalculatorMetrics class counts and times what the calculator does, and publishes it as MBeans in the "BinaryCalculator" domain:
+ * one "type=Operation" bean for every operation (and for the comparison) with its counts and latency histograms,
+ * and one "type=Calculator" bean with the validation failures by message (e.g., "Not a binary number!").
+ * The instrumentation is switched on with -Dcalculator.metrics=true. ENABLED is a static final field, so when it is off the JIT compiler
+ * removes the guarded calls altogether and the calculator runs the same code as without instrumentation.
+ *
+ * @author Yuxin Xiang
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public final class CalculatorMetrics {
+	/**
+	 * True if the instrumentation is switched on; every call into this class must be guarded by it.
+	 */
+	public static final boolean ENABLED = Boolean.getBoolean("calculator.metrics");
+
+	static final String DOMAIN = "BinaryCalculator";
+
+	private static final CalculatorBean CALCULATOR;
+	private static final OperationMetrics[] OPERATIONS;    // by the ordinal of the operation
+	private static final OperationMetrics COMPARE;
+
+	static {
+		if (ENABLED) {
+			CALCULATOR = new CalculatorBean();
+			OPERATIONS = new OperationMetrics[Operation.values().length];
+			for (Operation op : Operation.values()) {
+				OPERATIONS[op.ordinal()] = new OperationMetrics(op.symbol());
+			}
+			COMPARE = new OperationMetrics("compare");
+			register();
+		}
+		else {
+			CALCULATOR = null;
+			OPERATIONS = null;
+			COMPARE = null;
+		}
+	}
+
+
+	private CalculatorMetrics() {
+	}
+
+
+	/**
+	 * This method is to publish the beans on the platform MBean server, so they show up in JConsole or any other JMX client.
+	 */
+	private static void register() {
+		MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+		try {
+			server.registerMBean(CALCULATOR, new ObjectName(DOMAIN + ":type=Calculator"));
+			for (Operation op : Operation.values()) {
+				server.registerMBean(OPERATIONS[op.ordinal()], new ObjectName(DOMAIN + ":type=Operation,name=" + op.name()));
+			}
+			server.registerMBean(COMPARE, new ObjectName(DOMAIN + ":type=Operation,name=COMPARE"));
+		}
+		catch (JMException e) {    // e.g., a second class loader already registered them; the counting still works
+			System.err.println("The calculator metrics could not be registered: " + e.getMessage());
+		}
+	}
+
+
+	/**
+	 * This method is to record a calculation that was carried out.
+	 * @param op the operation
+	 * @param x the binary number X
+	 * @param y the binary number Y, null for a unary operation
+	 * @param nanos the time the calculation took
+	 */
+	static void record(Operation op, BigBinary x, BigBinary y, long nanos) {
+		long bits = (y == null) ? x.bitLength() : Math.max(x.bitLength(), y.bitLength());
+		OPERATIONS[op.ordinal()].record(bits, nanos);
+	}
+
+
+	/**
+	 * This method is to record a calculation that could not be carried out (e.g., a division by zero).
+	 * @param op the operation
+	 */
+	static void failure(Operation op) {
+		OPERATIONS[op.ordinal()].failures.increment();
+	}
+
+
+	/**
+	 * This method is to record a comparison of two binary numbers.
+	 * @param bits the bit length of the longer number
+	 * @param nanos the time the comparison took
+	 */
+	static void recordCompare(long bits, long nanos) {
+		COMPARE.record(bits, nanos);
+	}
+
+
+	/**
+	 * This method is to count an input that was turned down, by the message the user got for it.
+	 * @param message the message (e.g., "Invalid operation.")
+	 */
+	static void validationFailure(String message) {
+		CALCULATOR.validationFailures.computeIfAbsent(message, m -> new LongAdder()).increment();
+	}
+
+
+	/**
+	 * The CalculatorMXBean interface is the management interface of the validation failures.
+	 */
+	public interface CalculatorMXBean {
+		/**
+		 * @return the number of inputs turned down, by the message the user got for them
+		 */
+		Map<String, Long> getValidationFailures();
+	}
+
+
+	/**
+	 * The CalculatorBean class counts the validation failures by message.
+	 */
+	static final class CalculatorBean implements CalculatorMXBean {
+		final Map<String, LongAdder> validationFailures = new ConcurrentHashMap<>();
+
+
+		@Override
+		public Map<String, Long> getValidationFailures() {
+			Map<String, Long> failures = new TreeMap<>();
+			validationFailures.forEach((message, count) -> failures.put(message, count.sum()));
+			return failures;
+		}
+	}
+
+
+	/**
+	 * The OperationMXBean interface is the management interface of a single operation. The latencies are broken down by the bit length
+	 * of the longer operand, rounded up to a power of two (e.g., "<2^10" for operands of 512 to 1023 bits).
+	 */
+	public interface OperationMXBean {
+		String getSymbol();
+
+		long getCount();
+
+		long getFailures();
+
+		long getTotalNanos();
+
+		Map<String, Long> getCountByBits();
+
+		Map<String, Long> getMedianNanosByBits();
+
+		Map<String, Long> getP99NanosByBits();
+
+		Map<String, Long> getMaxNanosByBits();
+	}
+
+
+	/**
+	 * The OperationMetrics class holds the counts of a single operation and a latency histogram for every power of two of the operand bit length.
+	 */
+	static final class OperationMetrics implements OperationMXBean {
+		private final String symbol;
+		final LongAdder count = new LongAdder();
+		final LongAdder failures = new LongAdder();
+		final LongAdder totalNanos = new LongAdder();
+		private final AtomicReferenceArray<LatencyHistogram> byBits = new AtomicReferenceArray<>(Long.SIZE + 1);   // made on first use
+
+
+		OperationMetrics(String symbol) {
+			this.symbol = symbol;
+		}
+
+
+		void record(long bits, long nanos) {
+			count.increment();
+			totalNanos.add(nanos);
+			int bucket = Long.SIZE - Long.numberOfLeadingZeros(bits);    // bits < 2^bucket
+			LatencyHistogram histogram = byBits.get(bucket);
+			if (histogram == null) {
+				byBits.compareAndSet(bucket, null, new LatencyHistogram());
+				histogram = byBits.get(bucket);
+			}
+			histogram.record(nanos);
+		}
+
+
+		@Override
+		public String getSymbol() {
+			return symbol;
+		}
+
+
+		@Override
+		public long getCount() {
+			return count.sum();
+		}
+
+
+		@Override
+		public long getFailures() {
+			return failures.sum();
+		}
+
+
+		@Override
+		public long getTotalNanos() {
+			return totalNanos.sum();
+		}
+
+
+		@Override
+		public Map<String, Long> getCountByBits() {
+			return byBits(h -> h.count());
+		}
+
+
+		@Override
+		public Map<String, Long> getMedianNanosByBits() {
+			return byBits(h -> h.percentile(50));
+		}
+
+
+		@Override
+		public Map<String, Long> getP99NanosByBits() {
+			return byBits(h -> h.percentile(99));
+		}
+
+
+		@Override
+		public Map<String, Long> getMaxNanosByBits() {
+			return byBits(h -> h.max());
+		}
+
+
+		/**
+		 * This method is to read a figure out of every histogram in use.
+		 * @param figure the figure to read
+		 * @return the figure by bit length bucket, in the order of the buckets
+		 */
+		private Map<String, Long> byBits(ToLongFunction<LatencyHistogram> figure) {
+			Map<String, Long> map = new TreeMap<>();
+			for (int bucket = 0; bucket < byBits.length(); bucket++) {
+				LatencyHistogram histogram = byBits.get(bucket);
+				if (histogram != null) {
+					map.put(String.format("<2^%02d", bucket), figure.applyAsLong(histogram));
+				}
+			}
+			return map;
+		}
+	}
+
+
+	/**
+	 * The LatencyHistogram class counts latencies in log-linear buckets the same way HdrHistogram does:
+	 * every power of two is split into 8 buckets, so a percentile is off by at most 12.5% whatever the scale.
+	 */
+	static final class LatencyHistogram {
+		private static final int SUB_BITS = 3;    // 2^3 = 8 buckets for every power of two
+		private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+		private final AtomicLongArray counts = new AtomicLongArray((Long.SIZE - SUB_BITS + 1) * SUB_BUCKETS);
+		private final LongAdder total = new LongAdder();
+		private final AtomicLong max = new AtomicLong();
+
+
+		void record(long nanos) {
+			counts.incrementAndGet(index(Math.max(nanos, 0)));
+			total.increment();
+			if (nanos > max.get()) {    // the max rarely moves, so it is only updated when it does
+				max.accumulateAndGet(nanos, Math::max);
+			}
+		}
+
+
+		long count() {
+			return total.sum();
+		}
+
+
+		long max() {
+			return max.get();
+		}
+
+
+		/**
+		 * This method is to find the latency below which a percentage of the calculations were done.
+		 * @param percent the percentage, from 0 to 100
+		 * @return the highest latency of the bucket the percentile falls in, 0 if nothing was recorded
+		 */
+		long percentile(double percent) {
+			long[] snapshot = new long[counts.length()];
+			long sum = 0;
+			for (int i = 0; i < snapshot.length; i++) {
+				snapshot[i] = counts.get(i);
+				sum += snapshot[i];
+			}
+			long rank = (long) Math.ceil(sum * percent / 100.0);
+			long seen = 0;
+			for (int i = 0; i < snapshot.length; i++) {
+				seen += snapshot[i];
+				if (seen >= rank && snapshot[i] > 0) {
+					return Math.min(highestValue(i), max.get());
+				}
+			}
+			return 0;
+		}
+
+
+		/**
+		 * This method is to find the bucket of a latency: the values below 8 get one bucket each, then every power of two gets 8 buckets.
+		 * @param value the latency, not negative
+		 * @return the index of its bucket
+		 */
+		static int index(long value) {
+			if (value < SUB_BUCKETS) {
+				return (int) value;
+			}
+			int exponent = (Long.SIZE - 1) - Long.numberOfLeadingZeros(value);    // at least SUB_BITS
+			int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+			return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+		}
+
+
+		/**
+		 * This method is to find the highest latency that falls in a bucket.
+		 * @param index the index of the bucket
+		 * @return the highest latency of the bucket
+		 */
+		static long highestValue(int index) {
+			if (index < SUB_BUCKETS) {
+				return index;
+			}
+			int exponent = index / SUB_BUCKETS + SUB_BITS - 1;
+			long lowest = (long) (SUB_BUCKETS + index % SUB_BUCKETS) << (exponent - SUB_BITS);
+			return lowest + (1L << (exponent - SUB_BITS)) - 1;
+		}
+	}
+}
@@ -0,0 +1,152 @@
+/**
+ * The CompiledBitOperations class is the compiled mode of BitOperations. Each single-bit function only has 8 input combinations,
+ * so the gate-level functions are evaluated once for every combination and the answers are kept in lookup tables.
+ * On top of those, byte-wide tables take 8 bits of x and y together with the carry (or borrow, or less-than) bit coming in,
+ * and give 8 result bits together with the bit going out, so 8 digits are handled in a single lookup.
+ * The tables are built by chaining the gate-level functions of BitOperations, which stay available through the parent class for verification.
+ *
+ * @author Yuxin Xiang
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public class CompiledBitOperations extends BitOperations {
+	private static final BitOperations GATES = new BitOperations();    // the gate-level functions the tables are built from
+
+	// The single-bit tables are indexed by (c << 2) | (x << 1) | y, where c is the carry, borrow or less-than bit coming in.
+	private static final byte[] ADD = new byte[8];     // Z in bit 0, C in bit 1
+	private static final byte[] SUB = new byte[8];     // Z in bit 0, B in bit 1
+	private static final byte[] LESS = new byte[8];    // L in bit 0
+
+	// The byte-wide tables are indexed by (c << 16) | (x << 8) | y, where bit 0 of x and y is the lowest digit.
+	private static final short[] ADD8 = new short[1 << 17];    // the 8 digits of Z in bits 0-7, C in bit 8
+	private static final short[] SUB8 = new short[1 << 17];    // the 8 digits of Z in bits 0-7, B in bit 8
+	private static final byte[] LESS8 = new byte[1 << 17];     // L in bit 0
+
+	static {
+		for (int i = 0; i < 8; i++) {
+			int c = i >> 2, x = (i >> 1) & 1, y = i & 1;
+			ADD[i] = (byte) (GATES.addBit(x, y, c) | GATES.carryBit(x, y, c) << 1);
+			SUB[i] = (byte) (GATES.subBit(x, y, c) | GATES.borrowBit(x, y, c) << 1);
+			LESS[i] = (byte) GATES.lessThan(x, y, c);
+		}
+		for (int i = 0; i < (1 << 17); i++) {    // every byte is worked out digit by digit from the single-bit tables
+			int x = (i >> 8) & 0xFF, y = i & 0xFF;
+			int carry = i >> 16, borrow = carry, less = carry;
+			int sum = 0, difference = 0;
+			for (int bit = 0; bit < 8; bit++) {
+				int xBit = (x >> bit) & 1, yBit = (y >> bit) & 1;
+				int add = ADD[carry << 2 | xBit << 1 | yBit];
+				int sub = SUB[borrow << 2 | xBit << 1 | yBit];
+				sum |= (add & 1) << bit;
+				difference |= (sub & 1) << bit;
+				carry = add >> 1;
+				borrow = sub >> 1;
+				less = LESS[less << 2 | xBit << 1 | yBit];
+			}
+			ADD8[i] = (short) (sum | carry << 8);
+			SUB8[i] = (short) (difference | borrow << 8);
+			LESS8[i] = (byte) less;
+		}
+	}
+
+
+	@Override
+	public int addBit(int x, int y, int c) {
+		return ADD[c << 2 | x << 1 | y] & 1;
+	}
+
+
+	@Override
+	public int carryBit(int x, int y, int c) {
+		return ADD[c << 2 | x << 1 | y] >> 1;
+	}
+
+
+	@Override
+	public int subBit(int x, int y, int b) {
+		return SUB[b << 2 | x << 1 | y] & 1;
+	}
+
+
+	@Override
+	public int borrowBit(int x, int y, int b) {
+		return SUB[b << 2 | x << 1 | y] >> 1;
+	}
+
+
+	@Override
+	public int lessThan(int x, int y, int l) {
+		return LESS[l << 2 | x << 1 | y];
+	}
+
+
+	/**
+	 * This method performs the addition of 8 digits at once, considering c which is carried over from the lower digits.
+	 * @param x 8 digits of x, the lowest digit in bit 0
+	 * @param y 8 digits of y, the lowest digit in bit 0
+	 * @param c the carry bit which is carried over from the lower digits
+	 * @return the 8 digits of x + y in bits 0-7 and the carry to the higher digits in bit 8
+	 */
+	public int addByte(int x, int y, int c) {
+		return ADD8[c << 16 | x << 8 | y];
+	}
+
+
+	/**
+	 * This method performs the subtraction of 8 digits at once, considering b which has been lent to the lower digits.
+	 * @param x 8 digits of x, the lowest digit in bit 0
+	 * @param y 8 digits of y, the lowest digit in bit 0
+	 * @param b the borrow bit which has been lent to the lower digits
+	 * @return the 8 digits of x - y in bits 0-7 and the borrow from the higher digits in bit 8
+	 */
+	public int subByte(int x, int y, int b) {
+		return SUB8[b << 16 | x << 8 | y];
+	}
+
+
+	/**
+	 * This method performs the comparison of 8 digits at once, considering l which was the result of comparing the lower digits.
+	 * @param x 8 digits of x, the lowest digit in bit 0
+	 * @param y 8 digits of y, the lowest digit in bit 0
+	 * @param l the result of comparing the lower digits
+	 * @return 1 if the 8 digits of x (together with the lower digits) are less than those of y, otherwise 0
+	 */
+	public int lessThanByte(int x, int y, int l) {
+		return LESS8[l << 16 | x << 8 | y];
+	}
+
+
+	/**
+	 * This method is to check every entry of the tables against the gate-level functions,
+	 * chaining them digit by digit for the byte-wide tables.
+	 * @return true if every entry agrees with the gates
+	 */
+	public boolean verify() {
+		for (int i = 0; i < 8; i++) {
+			int c = i >> 2, x = (i >> 1) & 1, y = i & 1;
+			if (addBit(x, y, c) != GATES.addBit(x, y, c) || carryBit(x, y, c) != GATES.carryBit(x, y, c)
+					|| subBit(x, y, c) != GATES.subBit(x, y, c) || borrowBit(x, y, c) != GATES.borrowBit(x, y, c)
+					|| lessThan(x, y, c) != GATES.lessThan(x, y, c)) {
+				return false;
+			}
+		}
+		for (int i = 0; i < (1 << 17); i++) {
+			int x = (i >> 8) & 0xFF, y = i & 0xFF;
+			int carry = i >> 16, borrow = carry, less = carry;
+			int sum = 0, difference = 0;
+			for (int bit = 0; bit < 8; bit++) {
+				int xBit = (x >> bit) & 1, yBit = (y >> bit) & 1;
+				sum |= GATES.addBit(xBit, yBit, carry) << bit;
+				difference |= GATES.subBit(xBit, yBit, borrow) << bit;
+				carry = GATES.carryBit(xBit, yBit, carry);
+				borrow = GATES.borrowBit(xBit, yBit, borrow);
+				less = GATES.lessThan(xBit, yBit, less);
+			}
+			if (addByte(x, y, i >> 16) != (sum | carry << 8) || subByte(x, y, i >> 16) != (difference | borrow << 8)
+					|| lessThanByte(x, y, i >> 16) != less) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,655 @@
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The ExpressionEngine class evaluates whole expressions over binary numbers and named variables (e.g., "(A + B) - (C + D) + (A + B)"),
+ * with the operators of the calculator and the precedence of C: unary ~, # and - first, then * / %, + -, << >>, &, ^ and | last.
+ * A statement "name = expression" binds a variable without calculating anything.
+ * Every expression is parsed into a DAG in which identical subexpressions are the same node, across all the statements of the session
+ * (A + B and B + A included, as + is commutative), so a shared term is calculated once and then reused.
+ * The nodes of a statement only join the DAG once the whole statement has parsed, and the nodes no variable depends on any more
+ * (e.g., those of an expression that was only evaluated, or of a variable that was bound again) are dropped together with their values
+ * whenever the DAG has grown to twice what was kept the last time, so a long session only holds about what its variables need.
+ * The evaluation is lazy: only the nodes an expression that is asked for depends on are calculated, and each of them only once.
+ * When the operands are big, the nodes are scheduled on the common ForkJoinPool as soon as their inputs are ready,
+ * so independent subexpressions are calculated in parallel. The time of every node is kept for a report of the slowest nodes of the large expressions.
+ * The engine itself is not thread-safe.
+ *
+ * @author Yuxin Xiang
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public final class ExpressionEngine {
+	static final String INVALID_EXPRESSION = "Invalid expression.";
+	static final String UNKNOWN_VARIABLE = "Unknown variable.";
+	static final int PARALLEL_BITS = 1 << 16;    // the size of the biggest number from which the nodes are calculated in parallel
+	static final int TIMING_NODES = 16;          // the number of nodes calculated from which an evaluation gets a timing report
+	static final int SLOWEST_NODES = 10;         // the number of nodes a timing report lists, unless it lists them all
+
+	private static final int MAX_NESTING = 1_000;    // the deepest nesting of parentheses and unary operators
+	private static final int MIN_PRUNE_NODES = 1_024;    // the size below which the DAG is never pruned
+
+	private final ResultCache cache;    // null to calculate every node
+	private final Map<String, Node> variables = new HashMap<>();
+	private final Map<BigBinary, Node> numbers = new HashMap<>();    // the leaves, by value
+	private final Map<Key, Node> operations = new HashMap<>();       // the inner nodes, by operation and inputs
+	private int nextId;         // the id of the next node made
+	private int pruneAt = MIN_PRUNE_NODES;    // the number of nodes from which the DAG is pruned next
+	private List<Node> lastCalculated = new ArrayList<>();
+	private long lastNanos;
+
+
+	/**
+	 * The constructor of the ExpressionEngine class.
+	 * @param cache the cache to calculate the nodes through, null to calculate every node
+	 */
+	public ExpressionEngine(ResultCache cache) {
+		this.cache = cache;
+	}
+
+
+	/**
+	 * This method is to carry out a statement: either bind a variable to an expression, or evaluate an expression.
+	 * @param statement "name = expression" or an expression
+	 * @return the value of the expression, or null if the statement binds a variable
+	 * @throws ExpressionException if the statement is not valid (e.g., it uses a variable that is not bound)
+	 * @throws ArithmeticException if the expression cannot be calculated (e.g., it divides by zero)
+	 */
+	public BigBinary execute(String statement) throws ExpressionException {
+		Parser parser = new Parser(statement.getBytes(StandardCharsets.ISO_8859_1));
+		String name = parser.assignment();
+		Node node = parser.parse();
+		numbers.putAll(parser.newNumbers);    // the statement is valid, so its nodes can be shared with the next ones
+		operations.putAll(parser.newOperations);
+		try {
+			if (name == null) {
+				return evaluate(node);
+			}
+			variables.put(name, node);
+			if (node.name == null) {    // the first name of a node is the one it is reported by
+				node.name = name;
+			}
+			return null;
+		}
+		finally {
+			if (numbers.size() + operations.size() >= pruneAt) {
+				prune();
+			}
+		}
+	}
+
+
+	/**
+	 * This method is to drop the nodes that no variable depends on, with their values, from the DAG.
+	 * The walk costs as much as the nodes kept, and the next one only comes once as many nodes again have been added, so it is amortised.
+	 */
+	private void prune() {
+		Set<Node> kept = new HashSet<>();
+		Deque<Node> stack = new ArrayDeque<>(variables.values());
+		while (!stack.isEmpty()) {
+			Node node = stack.pop();
+			if (kept.add(node) && node.op != null) {    // a number has no inputs
+				stack.push(node.left);
+				if (node.right != null) {
+					stack.push(node.right);
+				}
+			}
+		}
+		numbers.values().retainAll(kept);
+		operations.values().retainAll(kept);
+		pruneAt = Math.max(2 * (numbers.size() + operations.size()), MIN_PRUNE_NODES);
+	}
+
+
+	/**
+	 * This method is to calculate the nodes an expression depends on that have no value yet, in an order where the inputs of a node come first.
+	 * @param root the node of the expression
+	 * @return the value of the expression
+	 * @throws ArithmeticException if a node cannot be calculated
+	 */
+	private BigBinary evaluate(Node root) {
+		long start = System.nanoTime();
+		List<Node> order = pending(root);
+		lastCalculated = order;
+		try {
+			if (order.size() < 2 || root.maxBits < PARALLEL_BITS) {
+				for (Node node : order) {
+					node.calculate(node.left.value, node.right == null ? null : node.right.value);
+				}
+			}
+			else {
+				parallel(order);
+			}
+		}
+		finally {
+			lastNanos = System.nanoTime() - start;
+		}
+		return root.value;
+	}
+
+
+	/**
+	 * This method is to schedule every node on the common pool once its inputs are ready and wait until they are all done.
+	 * @param order the nodes to calculate, inputs first
+	 * @throws ArithmeticException if a node cannot be calculated
+	 */
+	private void parallel(List<Node> order) {
+		Map<Node, CompletableFuture<BigBinary>> futures = new HashMap<>();
+		ForkJoinPool pool = ForkJoinPool.commonPool();
+		for (Node node : order) {
+			CompletableFuture<BigBinary> left = future(node.left, futures);
+			futures.put(node, (node.right == null)
+					? left.thenApplyAsync(x -> node.calculate(x, null), pool)
+					: left.thenCombineAsync(future(node.right, futures), node::calculate, pool));
+		}
+		CompletableFuture.allOf(futures.values().toArray(new CompletableFuture<?>[0])).exceptionally(e -> null).join();
+		for (Node node : order) {    // the same failure as the calculation one node at a time would report
+			try {
+				futures.get(node).join();
+			}
+			catch (CompletionException e) {
+				if (e.getCause() instanceof RuntimeException) {    // e.g., the ArithmeticException of a division by zero
+					throw (RuntimeException) e.getCause();
+				}
+				throw e;
+			}
+		}
+	}
+
+
+	/**
+	 * This method is to get the future value of an input of a node.
+	 * @param node the input
+	 * @param futures the futures of the nodes being calculated
+	 * @return the future value of the input, already complete if it has a value
+	 */
+	private static CompletableFuture<BigBinary> future(Node node, Map<Node, CompletableFuture<BigBinary>> futures) {
+		return (node.value != null) ? CompletableFuture.completedFuture(node.value) : futures.get(node);
+	}
+
+
+	/**
+	 * This method is to list the nodes without a value that an expression depends on, inputs first, without recursion
+	 * so a long chain (e.g., A + A + ... + A) cannot overflow the stack.
+	 * @param root the node of the expression
+	 * @return the nodes to calculate, each one after its inputs
+	 */
+	private static List<Node> pending(Node root) {
+		List<Node> order = new ArrayList<>();
+		Set<Node> visited = new HashSet<>(), listed = new HashSet<>();
+		Deque<Node> stack = new ArrayDeque<>();
+		if (root.value == null) {
+			stack.push(root);
+		}
+		while (!stack.isEmpty()) {
+			Node node = stack.peek();
+			if (listed.contains(node)) {    // pushed twice (e.g., by X + X) and already listed
+				stack.pop();
+			}
+			else if (visited.add(node)) {    // first visit: the inputs go on top of it
+				if (node.right != null && node.right.value == null) {
+					stack.push(node.right);
+				}
+				if (node.left.value == null) {
+					stack.push(node.left);
+				}
+			}
+			else {    // second visit: the inputs are listed
+				stack.pop();
+				listed.add(node);
+				order.add(node);
+			}
+		}
+		return order;
+	}
+
+
+	/**
+	 * This method is to report the slowest nodes calculated by the last evaluation, if it calculated enough nodes to be worth it.
+	 * @return the report, as timings(false) gives it
+	 */
+	public String timings() {
+		return timings(false);
+	}
+
+
+	/**
+	 * This method is to report the time of the nodes calculated by the last evaluation, if it calculated enough nodes to be worth it.
+	 * @param all true to list every node with its inputs listed before it, false to list only the slowest ones, slowest first
+	 * @return the report, one line per node listed and a summary line, or null if the last evaluation was small
+	 */
+	public String timings(boolean all) {
+		if (lastCalculated.size() < TIMING_NODES) {
+			return null;
+		}
+		List<Node> calculated = new ArrayList<>();
+		long total = 0;
+		for (Node node : lastCalculated) {
+			if (node.value != null) {    // otherwise the evaluation stopped before this node
+				calculated.add(node);
+				total += node.nanos;
+			}
+		}
+		List<Node> listed = calculated;
+		if (!all && calculated.size() > SLOWEST_NODES) {
+			listed = new ArrayList<>(calculated);
+			listed.sort((a, b) -> Long.compare(b.nanos, a.nanos));
+			listed = listed.subList(0, SLOWEST_NODES);
+		}
+		StringBuilder sb = new StringBuilder(String.format("%-8s %-40s %12s %14s%n", "node", "operation", "bits", "time (us)"));
+		for (Node node : listed) {
+			String operation = (node.right == null)
+					? node.op.symbol() + label(node.left)
+					: label(node.left) + " " + node.op.symbol() + " " + label(node.right);
+			sb.append(String.format("%-8s %-40s %12d %14.1f%n", label(node), operation, node.value.bitLength(), node.nanos / 1e3));
+		}
+		sb.append(String.format("%d nodes in %.1f us, %.1f us of calculation", lastCalculated.size(), lastNanos / 1e3, total / 1e3));
+		if (listed.size() < calculated.size()) {
+			sb.append(String.format(", the %d slowest listed", listed.size()));
+		}
+		return sb.toString();
+	}
+
+
+	/**
+	 * This method is to name a node in a report: by its variable, by its digits if it is a short number, or by its number.
+	 * @param node the node
+	 * @return the label of the node
+	 */
+	private static String label(Node node) {
+		if (node.name != null) {
+			return node.name;
+		}
+		if (node.op == null && node.value.bitLength() <= 16) {
+			return node.value.toString();
+		}
+		return "#" + node.id;
+	}
+
+
+	/**
+	 * The Parser class turns a statement into nodes by recursive descent, one method per level of precedence.
+	 */
+	private final class Parser {
+		final Map<BigBinary, Node> newNumbers = new HashMap<>();    // the nodes of the statement that are not in the DAG yet
+		final Map<Key, Node> newOperations = new HashMap<>();
+		private final byte[] str;
+		private int pos;
+		private int nesting;
+
+
+		Parser(byte[] str) {
+			this.str = str;
+		}
+
+
+		/**
+		 * This method is to get the node of a number, the same node every time for the same value.
+		 * @param value the number
+		 * @return the leaf node, from the DAG or made for the statement
+		 */
+		private Node number(BigBinary value) {
+			Node node = numbers.get(value);
+			return (node != null) ? node : newNumbers.computeIfAbsent(value, v -> new Node(nextId++, v));
+		}
+
+
+		/**
+		 * This method is to get the node of an operation, the same node every time for the same operation on the same inputs.
+		 * The inputs of a commutative operation are put in a fixed order, so both orders give the same node.
+		 * @param op the operation
+		 * @param left the node of X
+		 * @param right the node of Y, null for a unary operation
+		 * @return the inner node, from the DAG or made for the statement
+		 */
+		private Node operation(Operation op, Node left, Node right) {
+			if (op.isCommutative() && left.id > right.id) {
+				Node tmp = left; left = right; right = tmp;
+			}
+			Node l = left, r = right;
+			Key key = new Key(op, l, r);
+			Node node = operations.get(key);
+			return (node != null) ? node : newOperations.computeIfAbsent(key, k -> new Node(nextId++, op, l, r));
+		}
+
+
+		/**
+		 * This method is to read the "name =" in front of an assignment, if there is one.
+		 * @return the name of the variable, or null if the statement is an expression
+		 */
+		String assignment() {
+			int start = pos;
+			String name = name();
+			if (name != null && skipSpaces() < str.length && str[pos] == '=') {
+				pos++;
+				return name;
+			}
+			pos = start;
+			return null;
+		}
+
+
+		/**
+		 * This method is to read a whole expression.
+		 * @return the node of the expression
+		 * @throws ExpressionException if the expression is not valid
+		 */
+		Node parse() throws ExpressionException {
+			Node node = or();
+			if (skipSpaces() < str.length) {    // something is left after the expression
+				throw invalid(INVALID_EXPRESSION);
+			}
+			return node;
+		}
+
+
+		private Node or() throws ExpressionException {
+			Node node = xor();
+			while (accept("|")) {
+				node = operation(Operation.OR, node, xor());
+			}
+			return node;
+		}
+
+
+		private Node xor() throws ExpressionException {
+			Node node = and();
+			while (accept("^")) {
+				node = operation(Operation.XOR, node, and());
+			}
+			return node;
+		}
+
+
+		private Node and() throws ExpressionException {
+			Node node = shift();
+			while (accept("&")) {
+				node = operation(Operation.AND, node, shift());
+			}
+			return node;
+		}
+
+
+		private Node shift() throws ExpressionException {
+			Node node = additive();
+			while (true) {
+				if (accept("<<")) {
+					node = operation(Operation.SHIFT_LEFT, node, additive());
+				}
+				else if (accept(">>")) {
+					node = operation(Operation.SHIFT_RIGHT, node, additive());
+				}
+				else {
+					return node;
+				}
+			}
+		}
+
+
+		private Node additive() throws ExpressionException {
+			Node node = multiplicative();
+			while (true) {
+				if (accept("+")) {
+					node = operation(Operation.ADD, node, multiplicative());
+				}
+				else if (accept("-")) {
+					node = operation(Operation.SUBTRACT, node, multiplicative());
+				}
+				else {
+					return node;
+				}
+			}
+		}
+
+
+		private Node multiplicative() throws ExpressionException {
+			Node node = unary();
+			while (true) {
+				if (accept("*")) {
+					node = operation(Operation.MULTIPLY, node, unary());
+				}
+				else if (accept("/")) {
+					node = operation(Operation.DIVIDE, node, unary());
+				}
+				else if (accept("%")) {
+					node = operation(Operation.REMAINDER, node, unary());
+				}
+				else {
+					return node;
+				}
+			}
+		}
+
+
+		private Node unary() throws ExpressionException {
+			if (++nesting > MAX_NESTING) {
+				throw invalid(INVALID_EXPRESSION);
+			}
+			Node node;
+			if (accept("~")) {
+				node = operation(Operation.NOT, unary(), null);
+			}
+			else if (accept("#")) {
+				node = operation(Operation.POPCOUNT, unary(), null);
+			}
+			else if (accept("-")) {
+				Node x = unary();
+				node = (x.op == null) ? number(x.value.negate()) : operation(Operation.SUBTRACT, number(BigBinary.ZERO), x);   // a number is negated right away
+			}
+			else {
+				node = primary();
+			}
+			nesting--;
+			return node;
+		}
+
+
+		private Node primary() throws ExpressionException {
+			if (accept("(")) {
+				Node node = or();
+				if (!accept(")")) {
+					throw invalid(INVALID_EXPRESSION);
+				}
+				return node;
+			}
+			skipSpaces();
+			int start = pos;
+			while (pos < str.length && (str[pos] == '0' || str[pos] == '1')) {
+				pos++;
+			}
+			if (pos > start) {
+				if (pos < str.length && isNameChar(str[pos])) {    // e.g., "10a"
+					throw invalid(INVALID_EXPRESSION);
+				}
+				return number(BigBinary.parse(str, start, pos));
+			}
+			String name = name();
+			if (name == null) {
+				throw invalid(INVALID_EXPRESSION);
+			}
+			Node node = variables.get(name);
+			if (node == null) {
+				throw invalid(UNKNOWN_VARIABLE, "Unknown variable " + name + ".");
+			}
+			return node;
+		}
+
+
+		/**
+		 * This method is to read a variable name: a letter or an underscore, then letters, digits or underscores.
+		 * @return the name, or null if there is no name at the position
+		 */
+		private String name() {
+			skipSpaces();
+			int start = pos;
+			if (pos < str.length && isNameChar(str[pos]) && !(str[pos] >= '0' && str[pos] <= '9')) {
+				while (pos < str.length && isNameChar(str[pos])) {
+					pos++;
+				}
+				return new String(str, start, pos - start, StandardCharsets.ISO_8859_1);
+			}
+			return null;
+		}
+
+
+		private boolean isNameChar(byte c) {
+			return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+		}
+
+
+		/**
+		 * This method is to move past a symbol if it comes next.
+		 * @param symbol the symbol to look for
+		 * @return true if the symbol was there
+		 */
+		private boolean accept(String symbol) {
+			skipSpaces();
+			if (pos + symbol.length() > str.length) {
+				return false;
+			}
+			for (int i = 0; i < symbol.length(); i++) {
+				if (str[pos + i] != symbol.charAt(i)) {
+					return false;
+				}
+			}
+			pos += symbol.length();
+			return true;
+		}
+
+
+		private int skipSpaces() {
+			while (pos < str.length && str[pos] == ' ') {
+				pos++;
+			}
+			return pos;
+		}
+	}
+
+
+	/**
+	 * This method is to make the exception for a statement that fails validation, counting it when the instrumentation is switched on
+	 * (see CalculatorMetrics).
+	 * @param message the message the statement gets (e.g., INVALID_EXPRESSION)
+	 * @return the exception to throw
+	 */
+	private static ExpressionException invalid(String message) {
+		return invalid(message, message);
+	}
+
+
+	/**
+	 * This method is to make the exception for a statement that fails validation, with a message that tells more than the failure it is counted as.
+	 * @param failure the failure to count (e.g., UNKNOWN_VARIABLE)
+	 * @param message the message the statement gets (e.g., "Unknown variable A.")
+	 * @return the exception to throw
+	 */
+	private static ExpressionException invalid(String failure, String message) {
+		if (CalculatorMetrics.ENABLED) {
+			CalculatorMetrics.validationFailure(failure);
+		}
+		return new ExpressionException(message);
+	}
+
+
+	/**
+	 * The Node class is a number or an operation on other nodes, with its value once it has been calculated.
+	 */
+	private final class Node {
+		final int id;              // the order the node was made in, which also orders the inputs of a commutative operation
+		final Operation op;        // null for a number
+		final Node left, right;    // the inputs, right is null for a unary operation
+		final long maxBits;        // the bit length of the biggest number the node depends on
+		String name;               // the first variable bound to the node, for the report
+		volatile BigBinary value;
+		long nanos;                // the time the calculation took
+
+
+		Node(int id, BigBinary value) {
+			this.id = id;
+			this.op = null;
+			this.left = null;
+			this.right = null;
+			this.maxBits = value.bitLength();
+			this.value = value;
+		}
+
+
+		Node(int id, Operation op, Node left, Node right) {
+			this.id = id;
+			this.op = op;
+			this.left = left;
+			this.right = right;
+			this.maxBits = Math.max(left.maxBits, right == null ? 0 : right.maxBits);
+		}
+
+
+		/**
+		 * This method is to calculate the node from the values of its inputs, through the cache if there is one.
+		 * @param x the value of the left input
+		 * @param y the value of the right input, null for a unary operation
+		 * @return the value of the node
+		 */
+		BigBinary calculate(BigBinary x, BigBinary y) {
+			long start = System.nanoTime();
+			BigBinary result = (cache == null) ? op.apply(x, y) : cache.apply(op, x, y);
+			nanos = System.nanoTime() - start;
+			value = result;
+			return result;
+		}
+	}
+
+
+	/**
+	 * The Key class identifies an inner node by its operation and the identity of its inputs, which are unique nodes themselves.
+	 */
+	private static final class Key {
+		final Operation op;
+		final Object left, right;
+
+
+		Key(Operation op, Object left, Object right) {
+			this.op = op;
+			this.left = left;
+			this.right = right;
+		}
+
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return op == other.op && left == other.left && right == other.right;
+		}
+
+
+		@Override
+		public int hashCode() {
+			return (31 * op.ordinal() + System.identityHashCode(left)) * 31 + System.identityHashCode(right);
+		}
+	}
+
+
+	/**
+	 * The ExpressionException class reports why a statement could not be carried out.
+	 */
+	public static final class ExpressionException extends Exception {
+		private static final long serialVersionUID = 1L;
+
+
+		ExpressionException(String message) {
+			super(message, null, false, false);
+		}
+	}
+}
@@ -0,0 +1,516 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * The LimbArithmetic class implements the word-packed engine behind the calculator. A binary number is stored as an array of
+ * 64-bit limbs in little-endian order (i.e., words[0] holds the lowest 64 bits), together with the number of limbs in use,
+ * so that addition, subtraction and comparison can be done one whole limb per step rather than one bit per step.
+ *
+ * @author Yuxin Xiang
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public final class LimbArithmetic {
+	static final int LIMB_BITS = 64;     // the number of bits packed into a single limb
+	static final int PARALLEL_THRESHOLD = 1 << 14;    // the number of limbs (i.e., about 1M bits) from which the parallel adder is used
+
+
+	private LimbArithmetic() {
+	}
+
+
+	/**
+	 * This method is to find the number of limbs in use once the zero limbs at the top are ignored.
+	 * @param words the limbs of the number
+	 * @param len the number of limbs to consider
+	 * @return the number of significant limbs, 0 for the number zero
+	 */
+	static int normalize(long[] words, int len) {
+		while (len > 0 && words[len - 1] == 0) {
+			len--;
+		}
+		return len;
+	}
+
+
+	/**
+	 * This method is to compute the number of significant bits of a number (i.e., the position of the highest 1 plus one).
+	 * @param words the limbs of the number
+	 * @param len the number of significant limbs
+	 * @return the bit length, 0 for the number zero
+	 */
+	static long bitLength(long[] words, int len) {
+		if (len == 0) {
+			return 0;
+		}
+		return (long) (len - 1) * LIMB_BITS + (LIMB_BITS - Long.numberOfLeadingZeros(words[len - 1]));
+	}
+
+
+	/**
+	 * This method is to perform the addition of two numbers by calculating the sum of each limb from the lowest limb,
+	 * carrying one bit over to the next limb the same way a full adder carries over to the next digit.
+	 * Numbers of at least PARALLEL_THRESHOLD limbs are added by the parallel adder instead when more than one core is available.
+	 * @param x the limbs of the first number to add
+	 * @param xLen the number of significant limbs of x
+	 * @param y the limbs of the second number to add
+	 * @param yLen the number of significant limbs of y
+	 * @param z the limbs to store the result in, with room for at least max(xLen, yLen) + 1 limbs
+	 * @return the number of significant limbs of the result
+	 */
+	static int add(long[] x, int xLen, long[] y, int yLen, long[] z) {
+		if (xLen < yLen) {    // make x the longer number so only x needs to be walked after y is finished
+			long[] tmp = x; x = y; y = tmp;
+			int tmpLen = xLen; xLen = yLen; yLen = tmpLen;
+		}
+		long carry = useParallel(xLen)
+				? ParallelCarry.run(x, xLen, y, yLen, z, false)
+				: addRange(x, xLen, y, yLen, z, 0, xLen, 0);
+		if (carry != 0) {    // the final result needs one more limb for the carry in the very front
+			z[xLen++] = carry;
+		}
+		return xLen;
+	}
+
+
+	/**
+	 * This method is to decide whether a number is long enough for the parallel adder to pay off on this machine.
+	 * @param len the number of limbs of the longer operand
+	 * @return true if the parallel adder should be used
+	 */
+	private static boolean useParallel(int len) {
+		return len >= PARALLEL_THRESHOLD && ForkJoinPool.getCommonPoolParallelism() > 1;
+	}
+
+
+	/**
+	 * This method is to add the limbs of two numbers within a range of indices, starting with a given carry.
+	 * @param x the limbs of the longer number to add
+	 * @param xLen the number of significant limbs of x, no less than to
+	 * @param y the limbs of the shorter number to add, taken as zero from yLen onwards
+	 * @param yLen the number of significant limbs of y
+	 * @param z the limbs to store the result in
+	 * @param from the index of the lowest limb to add
+	 * @param to the index right after the highest limb to add
+	 * @param carry the carry into the lowest limb (i.e., 0 or 1)
+	 * @return the carry out of the highest limb
+	 */
+	static long addRange(long[] x, int xLen, long[] y, int yLen, long[] z, int from, int to, long carry) {
+		int i = from;
+		for (int shorterEnd = Math.min(to, yLen); i < shorterEnd; i++) {    // to traverse both numbers within the shorter length
+			long a = x[i], b = y[i];
+			long s = a + b + carry;
+			carry = ((a & b) | ((a | b) & ~s)) >>> 63;    // the carry out of the top bit of the limb
+			z[i] = s;
+		}
+		for (; i < to; i++) {    // y is finished, continue to move the index on x
+			long s = x[i] + carry;
+			carry = (carry != 0 && s == 0) ? 1 : 0;
+			z[i] = s;
+		}
+		return carry;
+	}
+
+
+	/**
+	 * This method is to perform the subtraction of two numbers by calculating the difference of each limb from the lowest limb.
+	 * Note: this only calculates the non-negative result (i.e., x - y) regarding x is no less than y,
+	 * compare x and y first before deciding whether to swap the sequence.
+	 * Numbers of at least PARALLEL_THRESHOLD limbs are subtracted by the parallel subtractor instead when more than one core is available.
+	 * @param x the limbs of the number to be subtracted from
+	 * @param xLen the number of significant limbs of x
+	 * @param y the limbs of the number to subtract
+	 * @param yLen the number of significant limbs of y
+	 * @param z the limbs to store the result in, with room for at least xLen limbs (z may be x itself)
+	 * @return the number of significant limbs of the result
+	 */
+	static int subtract(long[] x, int xLen, long[] y, int yLen, long[] z) {
+		if (useParallel(xLen)) {
+			ParallelCarry.run(x, xLen, y, yLen, z, true);
+		}
+		else {
+			subtractRange(x, xLen, y, yLen, z, 0, xLen, 0);
+		}
+		return normalize(z, xLen);
+	}
+
+
+	/**
+	 * This method is to subtract the limbs of one number from another within a range of indices, starting with a given borrow.
+	 * @param x the limbs of the number to be subtracted from
+	 * @param xLen the number of significant limbs of x, no less than to
+	 * @param y the limbs of the number to subtract, taken as zero from yLen onwards
+	 * @param yLen the number of significant limbs of y
+	 * @param z the limbs to store the result in
+	 * @param from the index of the lowest limb to subtract
+	 * @param to the index right after the highest limb to subtract
+	 * @param borrow the borrow from the lowest limb (i.e., 0 or 1)
+	 * @return the borrow from the limb above the highest limb
+	 */
+	static long subtractRange(long[] x, int xLen, long[] y, int yLen, long[] z, int from, int to, long borrow) {
+		int i = from;
+		for (int shorterEnd = Math.min(to, yLen); i < shorterEnd; i++) {    // to traverse both numbers within the length of y
+			long a = x[i], b = y[i];
+			long d = a - b - borrow;
+			borrow = ((~a & b) | ((~a | b) & d)) >>> 63;    // whether the limb had to borrow from the next limb
+			z[i] = d;
+		}
+		for (; i < to; i++) {    // y is finished, continue to move the index on x
+			long a = x[i];
+			z[i] = a - borrow;
+			borrow = (borrow != 0 && a == 0) ? 1 : 0;
+		}
+		return borrow;
+	}
+
+
+	/**
+	 * This method is to compare two numbers from the highest limb down, stopping at the first limb that differs.
+	 * @param x the limbs of the first number to compare
+	 * @param xLen the number of significant limbs of x
+	 * @param y the limbs of the second number to compare
+	 * @param yLen the number of significant limbs of y
+	 * @return -1 if x is smaller than y, 0 if they are equal, 1 if x is bigger than y
+	 */
+	static int compare(long[] x, int xLen, long[] y, int yLen) {
+		if (xLen != yLen) {    // x and y have different lengths, must be unequal
+			return (xLen < yLen) ? -1 : 1;
+		}
+		for (int i = xLen - 1; i >= 0; i--) {
+			if (x[i] != y[i]) {
+				return (Long.compareUnsigned(x[i], y[i]) < 0) ? -1 : 1;
+			}
+		}
+		return 0;
+	}
+
+
+	/**
+	 * This method is to find the highest limb where two numbers of the same length differ, walking from the highest limb down.
+	 * The limbs above it are equal, so they cancel out in a subtraction and only the limbs up to it need to be subtracted.
+	 * @param x the limbs of the first number
+	 * @param y the limbs of the second number
+	 * @param len the number of significant limbs of both numbers
+	 * @return the index of the highest limb that differs, or -1 if the numbers are equal
+	 */
+	static int highestDifference(long[] x, long[] y, int len) {
+		int i = len - 1;
+		while (i >= 0 && x[i] == y[i]) {
+			i--;
+		}
+		return i;
+	}
+
+
+	/**
+	 * This method is to drop the zero limbs at the top of an array so that its length is the number of significant limbs.
+	 * The trimmed-array methods below all take and give limbs in this form.
+	 * @param words the limbs of the number
+	 * @return the same array if it has no zero limb at the top, otherwise a shorter copy
+	 */
+	static long[] trim(long[] words) {
+		int len = normalize(words, words.length);
+		return (len == words.length) ? words : Arrays.copyOf(words, len);
+	}
+
+
+	/**
+	 * This method is to add two numbers given as trimmed arrays.
+	 * @param x the limbs of the first number to add
+	 * @param y the limbs of the second number to add
+	 * @return the trimmed limbs of x + y
+	 */
+	static long[] add(long[] x, long[] y) {
+		long[] z = new long[Math.max(x.length, y.length) + 1];
+		int zLen = add(x, x.length, y, y.length, z);
+		return (zLen == z.length) ? z : Arrays.copyOf(z, zLen);
+	}
+
+
+	/**
+	 * This method is to subtract two numbers given as trimmed arrays, regarding x is no less than y.
+	 * @param x the limbs of the number to be subtracted from
+	 * @param y the limbs of the number to subtract
+	 * @return the trimmed limbs of x - y
+	 */
+	static long[] subtract(long[] x, long[] y) {
+		long[] z = new long[x.length];
+		int zLen = subtract(x, x.length, y, y.length, z);
+		return (zLen == z.length) ? z : Arrays.copyOf(z, zLen);
+	}
+
+
+	/**
+	 * This method is to compare two numbers given as trimmed arrays.
+	 * @param x the limbs of the first number to compare
+	 * @param y the limbs of the second number to compare
+	 * @return -1 if x is smaller than y, 0 if they are equal, 1 if x is bigger than y
+	 */
+	static int compare(long[] x, long[] y) {
+		return compare(x, x.length, y, y.length);
+	}
+
+
+	/**
+	 * This method is to take the lowest limbs of a number given as a trimmed array (i.e., x mod 2^(64n)).
+	 * @param x the limbs of the number
+	 * @param n the number of limbs to take
+	 * @return the trimmed lowest n limbs
+	 */
+	static long[] lowWords(long[] x, int n) {
+		return trim(Arrays.copyOf(x, Math.min(n, x.length)));
+	}
+
+
+	/**
+	 * This method is to drop the lowest limbs of a number given as a trimmed array (i.e., x / 2^(64n)).
+	 * @param x the limbs of the number
+	 * @param n the number of limbs to drop
+	 * @return the limbs above the lowest n limbs
+	 */
+	static long[] highWords(long[] x, int n) {
+		return (n >= x.length) ? new long[0] : Arrays.copyOfRange(x, n, x.length);
+	}
+
+
+	/**
+	 * This method is to put two numbers given as trimmed arrays side by side (i.e., high * 2^(64n) + low).
+	 * @param high the limbs of the higher part
+	 * @param low the limbs of the lower part, no longer than n limbs
+	 * @param n the number of limbs the lower part stands for
+	 * @return the trimmed limbs of the joined number
+	 */
+	static long[] join(long[] high, long[] low, int n) {
+		if (high.length == 0) {
+			return low;
+		}
+		long[] z = new long[n + high.length];
+		System.arraycopy(low, 0, z, 0, low.length);
+		System.arraycopy(high, 0, z, n, high.length);
+		return z;
+	}
+
+
+	/**
+	 * This method is to add a number into a part of a bigger one in place, starting from a given limb.
+	 * @param z the limbs to add into, with room for the whole result
+	 * @param x the limbs of the number to add
+	 * @param offset the index of the limb of z that the lowest limb of x is added to
+	 */
+	static void addInto(long[] z, long[] x, int offset) {
+		long carry = 0;
+		for (int i = 0; i < x.length; i++) {
+			long a = z[offset + i], b = x[i];
+			long s = a + b + carry;
+			carry = ((a & b) | ((a | b) & ~s)) >>> 63;
+			z[offset + i] = s;
+		}
+		for (int i = offset + x.length; carry != 0; i++) {    // to let the carry ripple up
+			carry = (++z[i] == 0) ? 1 : 0;
+		}
+	}
+
+
+	/**
+	 * This method is to shift a number given as a trimmed array to the left (i.e., x * 2^n).
+	 * @param x the limbs of the number
+	 * @param n the number of bits to shift by
+	 * @return the trimmed limbs of the shifted number
+	 */
+	static long[] shiftLeft(long[] x, long n) {
+		if (x.length == 0 || n == 0) {
+			return x;
+		}
+		int words = (int) (n >>> 6), bits = (int) (n & 63);
+		long[] z = new long[x.length + words + 1];
+		for (int i = x.length - 1; i >= 0; i--) {
+			z[i + words + 1] |= (bits == 0) ? 0 : x[i] >>> (LIMB_BITS - bits);
+			z[i + words] = x[i] << bits;
+		}
+		return trim(z);
+	}
+
+
+	/**
+	 * This method is to shift a number given as a trimmed array to the right, dropping the lowest bits (i.e., x / 2^n).
+	 * @param x the limbs of the number
+	 * @param n the number of bits to shift by
+	 * @return the trimmed limbs of the shifted number
+	 */
+	static long[] shiftRight(long[] x, long n) {
+		if (n >= (long) x.length * LIMB_BITS) {
+			return new long[0];
+		}
+		int words = (int) (n >>> 6), bits = (int) (n & 63);
+		long[] z = new long[x.length - words];
+		for (int i = 0; i < z.length; i++) {
+			long high = (i + words + 1 < x.length && bits != 0) ? x[i + words + 1] << (LIMB_BITS - bits) : 0;
+			z[i] = (x[i + words] >>> bits) | high;
+		}
+		return trim(z);
+	}
+
+
+	/**
+	 * This method is to write the binary digits of a number without leading zeros into a character buffer, highest digit first.
+	 * Every limb is written in a single pass, so no intermediate string is built.
+	 * @param words the limbs of the number
+	 * @param len the number of significant limbs
+	 * @param dest the buffer to write the digits in, with room for max(bitLength, 1) digits starting at pos
+	 * @param pos the index in dest to write the highest digit at
+	 * @return the index in dest right after the lowest digit
+	 */
+	static int renderBinary(long[] words, int len, char[] dest, int pos) {
+		if (len == 0) {    // the number zero is still written as a single digit
+			dest[pos] = '0';
+			return pos + 1;
+		}
+		long top = words[len - 1];
+		for (int bit = LIMB_BITS - 1 - Long.numberOfLeadingZeros(top); bit >= 0; bit--) {   // skip the leading zeros of the top limb
+			dest[pos++] = (char) ('0' + ((top >>> bit) & 1));
+		}
+		for (int i = len - 2; i >= 0; i--) {    // every lower limb is written in full
+			long w = words[i];
+			for (int bit = LIMB_BITS - 1; bit >= 0; bit--) {
+				dest[pos++] = (char) ('0' + ((w >>> bit) & 1));
+			}
+		}
+		return pos;
+	}
+
+
+	/**
+	 * The ParallelCarry class adds or subtracts huge numbers on the ForkJoinPool like a carry-lookahead adder.
+	 * The limbs are split into blocks, and every block is first calculated on its own with no carry (or borrow) coming in,
+	 * recording whether the block generates a carry by itself and whether it would propagate a carry coming in
+	 * (i.e., its sum is all ones, or its difference is all zeros). A prefix scan over those summaries gives the carry into every block,
+	 * and the blocks receiving a carry are then fixed up in parallel by adding (or subtracting) one.
+	 */
+	private static final class ParallelCarry extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		private static final int MIN_BLOCK = 1 << 10;    // the smallest number of limbs worth handing to another thread
+
+		private final long[] x, y, z;
+		private final int xLen, yLen, blockSize;
+		private final boolean subtraction;
+		private final boolean fixUp;            // false for the first pass over the blocks, true for the fix-up pass
+		private final byte[] generate;          // 1 if the block carries (or borrows) out by itself
+		private final byte[] propagate;         // 1 if the block passes a carry (or borrow) coming in through to the next block
+		private final byte[] carryIn;           // 1 if the block receives a carry (or borrow), known after the prefix scan
+		private final int fromBlock, toBlock;   // the blocks this task is responsible for
+
+
+		private ParallelCarry(ParallelCarry parent, boolean fixUp, int fromBlock, int toBlock) {
+			this.x = parent.x; this.xLen = parent.xLen;
+			this.y = parent.y; this.yLen = parent.yLen;
+			this.z = parent.z;
+			this.blockSize = parent.blockSize;
+			this.subtraction = parent.subtraction;
+			this.generate = parent.generate;
+			this.propagate = parent.propagate;
+			this.carryIn = parent.carryIn;
+			this.fixUp = fixUp;
+			this.fromBlock = fromBlock;
+			this.toBlock = toBlock;
+		}
+
+
+		private ParallelCarry(long[] x, int xLen, long[] y, int yLen, long[] z, boolean subtraction) {
+			this.x = x; this.xLen = xLen;
+			this.y = y; this.yLen = yLen;
+			this.z = z;
+			this.subtraction = subtraction;
+			int parallelism = ForkJoinPool.getCommonPoolParallelism();
+			this.blockSize = Math.max(MIN_BLOCK, xLen / (4 * parallelism) + 1);    // a few blocks per thread to balance the load
+			int blocks = (xLen + blockSize - 1) / blockSize;
+			this.generate = new byte[blocks];
+			this.propagate = new byte[blocks];
+			this.carryIn = new byte[blocks];
+			this.fixUp = false;
+			this.fromBlock = 0;
+			this.toBlock = blocks;
+		}
+
+
+		/**
+		 * This method is to add (or subtract) two numbers block by block in parallel.
+		 * @param x the limbs of the longer number (or the number to be subtracted from)
+		 * @param xLen the number of significant limbs of x
+		 * @param y the limbs of the shorter number (or the number to subtract)
+		 * @param yLen the number of significant limbs of y
+		 * @param z the limbs to store the result in, with room for at least xLen limbs
+		 * @param subtraction true for x - y, false for x + y
+		 * @return the carry (or borrow) out of the highest limb
+		 */
+		static long run(long[] x, int xLen, long[] y, int yLen, long[] z, boolean subtraction) {
+			ParallelCarry firstPass = new ParallelCarry(x, xLen, y, yLen, z, subtraction);
+			ForkJoinPool.commonPool().invoke(firstPass);
+
+			int blocks = firstPass.toBlock;
+			byte carry = 0;
+			for (int b = 0; b < blocks; b++) {    // the prefix scan: a block carries out if it generates, or propagates a carry coming in
+				firstPass.carryIn[b] = carry;
+				carry = (byte) (firstPass.generate[b] | (firstPass.propagate[b] & carry));
+			}
+			ForkJoinPool.commonPool().invoke(new ParallelCarry(firstPass, true, 0, blocks));
+			return carry;
+		}
+
+
+		@Override
+		protected void compute() {
+			if (toBlock - fromBlock > 1) {
+				int mid = (fromBlock + toBlock) >>> 1;
+				invokeAll(new ParallelCarry(this, fixUp, fromBlock, mid), new ParallelCarry(this, fixUp, mid, toBlock));
+				return;
+			}
+			int from = fromBlock * blockSize;
+			int to = Math.min(from + blockSize, xLen);
+			if (!fixUp) {
+				calculateBlock(fromBlock, from, to);
+			}
+			else if (carryIn[fromBlock] != 0) {
+				fixUpBlock(from, to);
+			}
+		}
+
+
+		/**
+		 * This method is to calculate a block with no carry (or borrow) coming in and record its summary.
+		 * @param block the index of the block
+		 * @param from the index of the lowest limb of the block
+		 * @param to the index right after the highest limb of the block
+		 */
+		private void calculateBlock(int block, int from, int to) {
+			long out = subtraction
+					? subtractRange(x, xLen, y, yLen, z, from, to, 0)
+					: addRange(x, xLen, y, yLen, z, from, to, 0);
+			generate[block] = (byte) out;
+			if (out == 0) {
+				long passing = subtraction ? 0 : -1L;    // the limb value that passes a carry (or borrow) through
+				int i = from;
+				while (i < to && z[i] == passing) {
+					i++;
+				}
+				propagate[block] = (byte) ((i == to) ? 1 : 0);
+			}
+		}
+
+
+		/**
+		 * This method is to add (or subtract) the carry (or borrow) coming into a block, stopping as soon as it is absorbed.
+		 * @param from the index of the lowest limb of the block
+		 * @param to the index right after the highest limb of the block
+		 */
+		private void fixUpBlock(int from, int to) {
+			for (int i = from; i < to; i++) {
+				long before = z[i];
+				z[i] = subtraction ? before - 1 : before + 1;
+				if (subtraction ? before != 0 : before != -1L) {    // the carry (or borrow) is absorbed by this limb
+					break;
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,101 @@
+import java.util.Arrays;
+
+/**
+ * The LimbBitwise class carries out the bitwise operations on numbers given as trimmed arrays of 64-bit limbs (see LimbArithmetic.trim),
+ * 64 digits at a time. The shorter operand is aligned the same way the addition does it, as if it had leading zeros up to the length of the longer one.
+ * The loops only work on whole limbs with no branch inside, so the JIT compiler can turn them into vector instructions by itself.
+ *
+ * @author Yuxin Xiang
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public final class LimbBitwise {
+	private LimbBitwise() {
+	}
+
+
+	/**
+	 * This method is to calculate the bitwise AND of two numbers.
+	 * @param x the trimmed limbs of the first number
+	 * @param y the trimmed limbs of the second number
+	 * @return the trimmed limbs of x & y
+	 */
+	static long[] and(long[] x, long[] y) {
+		int len = Math.min(x.length, y.length);    // the missing limbs of the shorter number are zeros, so the rest of the result is zero
+		long[] z = new long[len];
+		for (int i = 0; i < len; i++) {
+			z[i] = x[i] & y[i];
+		}
+		return LimbArithmetic.trim(z);
+	}
+
+
+	/**
+	 * This method is to calculate the bitwise OR of two numbers.
+	 * @param x the trimmed limbs of the first number
+	 * @param y the trimmed limbs of the second number
+	 * @return the trimmed limbs of x | y
+	 */
+	static long[] or(long[] x, long[] y) {
+		if (x.length < y.length) {    // make x the longer number
+			long[] tmp = x; x = y; y = tmp;
+		}
+		long[] z = Arrays.copyOf(x, x.length);    // the limbs of x above y are copied as they are
+		for (int i = 0; i < y.length; i++) {
+			z[i] = x[i] | y[i];
+		}
+		return z;    // the top limb comes from x, so it is not zero
+	}
+
+
+	/**
+	 * This method is to calculate the bitwise XOR of two numbers.
+	 * @param x the trimmed limbs of the first number
+	 * @param y the trimmed limbs of the second number
+	 * @return the trimmed limbs of x ^ y
+	 */
+	static long[] xor(long[] x, long[] y) {
+		if (x.length < y.length) {    // make x the longer number
+			long[] tmp = x; x = y; y = tmp;
+		}
+		long[] z = Arrays.copyOf(x, x.length);
+		for (int i = 0; i < y.length; i++) {
+			z[i] = x[i] ^ y[i];
+		}
+		return LimbArithmetic.trim(z);    // equal lengths might cancel out the top limbs
+	}
+
+
+	/**
+	 * This method is to invert the digits of a number, as many as it has without leading zeros (e.g., ~1010 is 101).
+	 * Zero has the single digit 0, so its inverse is 1.
+	 * @param x the trimmed limbs of the number
+	 * @return the trimmed limbs of ~x
+	 */
+	static long[] not(long[] x) {
+		if (x.length == 0) {
+			return new long[] {1};
+		}
+		long[] z = new long[x.length];
+		for (int i = 0; i < x.length; i++) {
+			z[i] = ~x[i];
+		}
+		z[x.length - 1] &= -1L >>> Long.numberOfLeadingZeros(x[x.length - 1]);   // to drop the bits above the top digit of x
+		return LimbArithmetic.trim(z);
+	}
+
+
+	/**
+	 * This method is to count the digits set to 1 in a number.
+	 * @param x the limbs of the number
+	 * @param len the number of significant limbs
+	 * @return the number of 1 digits
+	 */
+	static long popCount(long[] x, int len) {
+		long count = 0;
+		for (int i = 0; i < len; i++) {
+			count += Long.bitCount(x[i]);
+		}
+		return count;
+	}
+}
@@ -0,0 +1,252 @@
+import java.util.Arrays;
+
+/**
+ * The LimbDivision class divides numbers given as trimmed arrays of 64-bit limbs (see LimbArithmetic.trim).
+ * Small divisors use Knuth's long division (Algorithm D) on 32-bit halves of the limbs, which is the same long division done by hand
+ * with a guessed and corrected quotient digit. Big divisors use the recursive division of Burnikel and Ziegler,
+ * which splits the work into divisions of half the size, so most of the time goes into the fast multiplication instead.
+ *
+ * @author Yuxin Xiang
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public final class LimbDivision {
+	static final int BURNIKEL_ZIEGLER_THRESHOLD = 40;    // the number of limbs of the divisor from which Burnikel-Ziegler is used
+	static final int BURNIKEL_ZIEGLER_OFFSET = 20;       // the number of limbs the dividend must be longer than the divisor by
+
+	private static final long[] ZERO = new long[0];
+	private static final long[] ONE = {1};
+	private static final long MASK = 0xFFFFFFFFL;
+
+
+	private LimbDivision() {
+	}
+
+
+	/**
+	 * This method is to divide one number by another, choosing the method from the operand sizes.
+	 * @param x the trimmed limbs of the dividend
+	 * @param y the trimmed limbs of the divisor, not zero
+	 * @return the trimmed limbs of the quotient x / y and of the remainder x mod y, in this order
+	 */
+	static long[][] divideAndRemainder(long[] x, long[] y) {
+		if (LimbArithmetic.compare(x, y) < 0) {
+			return new long[][] {ZERO, x};
+		}
+		if (y.length < BURNIKEL_ZIEGLER_THRESHOLD || x.length - y.length < BURNIKEL_ZIEGLER_OFFSET) {
+			return knuth(x, y);
+		}
+		return burnikelZiegler(x, y);
+	}
+
+
+	/**
+	 * This method is to divide with the recursive method of Burnikel and Ziegler. The divisor is shifted so that it fills exactly n limbs,
+	 * n being a multiple of a power of two, then the dividend is cut into blocks of n limbs that are divided two by two from the top.
+	 * @param x the trimmed limbs of the dividend
+	 * @param y the trimmed limbs of the divisor
+	 * @return the trimmed limbs of the quotient and of the remainder
+	 */
+	private static long[][] burnikelZiegler(long[] x, long[] y) {
+		int s = y.length;
+		int m = 1 << (32 - Integer.numberOfLeadingZeros(s / BURNIKEL_ZIEGLER_THRESHOLD));
+		int n = ((s + m - 1) / m) * m;    // the block size, which halves evenly down to the threshold
+		long blockBits = (long) n * LimbArithmetic.LIMB_BITS;
+		long sigma = Math.max(0, blockBits - LimbArithmetic.bitLength(y, y.length));
+		long[] b = LimbArithmetic.shiftLeft(y, sigma);    // exactly n limbs with the top bit set
+		long[] a = LimbArithmetic.shiftLeft(x, sigma);
+		int t = (int) Math.max(2, (LimbArithmetic.bitLength(a, a.length) + blockBits) / blockBits);   // the top block is left below b
+
+		long[] quotient = new long[(t - 1) * n];
+		long[] z = LimbArithmetic.highWords(a, (t - 2) * n);    // the top two blocks
+		long[] remainder = ZERO;
+		for (int i = t - 2; i >= 0; i--) {
+			long[][] qr = divide2n1n(z, b, n);
+			System.arraycopy(qr[0], 0, quotient, i * n, qr[0].length);
+			if (i > 0) {    // to bring down the next block
+				z = LimbArithmetic.join(qr[1], block(a, i - 1, n), n);
+			}
+			else {
+				remainder = qr[1];
+			}
+		}
+		return new long[][] {LimbArithmetic.trim(quotient), LimbArithmetic.shiftRight(remainder, sigma)};
+	}
+
+
+	/**
+	 * This method is to divide a number of at most 2n limbs by a number of n limbs, regarding the quotient fits in n limbs.
+	 * @param a the trimmed limbs of the dividend, less than b * 2^(64n)
+	 * @param b the limbs of the divisor, exactly n limbs with the top bit set
+	 * @param n the number of limbs of the divisor
+	 * @return the trimmed limbs of the quotient and of the remainder
+	 */
+	private static long[][] divide2n1n(long[] a, long[] b, int n) {
+		if ((n & 1) != 0 || n < BURNIKEL_ZIEGLER_THRESHOLD) {
+			return knuth(a, b);
+		}
+		int half = n / 2;
+		long[][] qr1 = divide3n2n(LimbArithmetic.highWords(a, half), b, half);
+		long[][] qr2 = divide3n2n(LimbArithmetic.join(qr1[1], LimbArithmetic.lowWords(a, half), half), b, half);
+		return new long[][] {LimbArithmetic.join(qr1[0], qr2[0], half), qr2[1]};
+	}
+
+
+	/**
+	 * This method is to divide a number of at most 3 halves by a number of 2 halves, regarding the quotient fits in one half.
+	 * The quotient is first estimated from the higher half of the divisor, then corrected with its lower half.
+	 * @param a the trimmed limbs of the dividend, less than b * 2^(64 half)
+	 * @param b the limbs of the divisor, exactly 2 * half limbs with the top bit set
+	 * @param half the number of limbs in a half
+	 * @return the trimmed limbs of the quotient and of the remainder
+	 */
+	private static long[][] divide3n2n(long[] a, long[] b, int half) {
+		long[] a12 = LimbArithmetic.highWords(a, half);
+		long[] a1 = LimbArithmetic.highWords(a, 2 * half);
+		long[] b1 = LimbArithmetic.highWords(b, half);
+		long[] b2 = LimbArithmetic.lowWords(b, half);
+
+		long[] q, r1;
+		if (LimbArithmetic.compare(a1, b1) < 0) {
+			long[][] qr = divide2n1n(a12, b1, half);
+			q = qr[0];
+			r1 = qr[1];
+		}
+		else {    // the estimate would not fit in a half, so take the biggest one that does (i.e., 2^(64 half) - 1)
+			q = new long[half];
+			Arrays.fill(q, -1L);
+			r1 = LimbArithmetic.subtract(LimbArithmetic.add(a12, b1), LimbArithmetic.join(b1, ZERO, half));
+		}
+		long[] d = LimbMultiplication.multiply(q, b2);
+		long[] r = LimbArithmetic.join(r1, LimbArithmetic.lowWords(a, half), half);
+		while (LimbArithmetic.compare(r, d) < 0) {    // the estimate was too big, at most twice
+			r = LimbArithmetic.add(r, b);
+			q = LimbArithmetic.subtract(q, ONE);
+		}
+		return new long[][] {q, LimbArithmetic.subtract(r, d)};
+	}
+
+
+	/**
+	 * This method is to take a block of n limbs out of a number.
+	 * @param a the trimmed limbs of the number
+	 * @param i the index of the block, counted from the lowest one
+	 * @param n the number of limbs in a block
+	 * @return the trimmed limbs of the block
+	 */
+	private static long[] block(long[] a, int i, int n) {
+		return LimbArithmetic.lowWords(LimbArithmetic.highWords(a, i * n), n);
+	}
+
+
+	/**
+	 * This method is to divide with Knuth's Algorithm D, working on 32-bit digits so every step fits in a long.
+	 * @param x the trimmed limbs of the dividend
+	 * @param y the trimmed limbs of the divisor, not zero
+	 * @return the trimmed limbs of the quotient and of the remainder
+	 */
+	static long[][] knuth(long[] x, long[] y) {
+		int[] u = toDigits(x), v = toDigits(y);
+		int m = u.length, n = v.length;
+		if (m < n) {
+			return new long[][] {ZERO, x};
+		}
+		int[] q = new int[m - n + 1];
+
+		if (n == 1) {    // a single digit divisor only needs a short division
+			long divisor = v[0] & MASK, rest = 0;
+			for (int j = m - 1; j >= 0; j--) {
+				long current = (rest << 32) | (u[j] & MASK);
+				q[j] = (int) Long.divideUnsigned(current, divisor);
+				rest = Long.remainderUnsigned(current, divisor);
+			}
+			return new long[][] {fromDigits(q), LimbArithmetic.trim(new long[] {rest})};
+		}
+
+		int shift = Integer.numberOfLeadingZeros(v[n - 1]);    // to normalise the divisor so its top digit has the top bit set
+		int[] vn = new int[n];
+		for (int i = n - 1; i > 0; i--) {
+			vn[i] = (v[i] << shift) | (shift == 0 ? 0 : v[i - 1] >>> (32 - shift));
+		}
+		vn[0] = v[0] << shift;
+		int[] un = new int[m + 1];
+		un[m] = (shift == 0) ? 0 : u[m - 1] >>> (32 - shift);
+		for (int i = m - 1; i > 0; i--) {
+			un[i] = (u[i] << shift) | (shift == 0 ? 0 : u[i - 1] >>> (32 - shift));
+		}
+		un[0] = u[0] << shift;
+
+		long vTop = vn[n - 1] & MASK, vNext = vn[n - 2] & MASK;
+		for (int j = m - n; j >= 0; j--) {
+			long top = ((un[j + n] & MASK) << 32) | (un[j + n - 1] & MASK);
+			long qHat = Long.divideUnsigned(top, vTop);
+			long rHat = Long.remainderUnsigned(top, vTop);
+			while (qHat > MASK || Long.compareUnsigned(qHat * vNext, (rHat << 32) | (un[j + n - 2] & MASK)) > 0) {
+				qHat--;    // the guessed quotient digit is too big
+				rHat += vTop;
+				if (rHat > MASK) {
+					break;
+				}
+			}
+			long borrow = 0, t;    // to multiply the divisor by the quotient digit and subtract it
+			for (int i = 0; i < n; i++) {
+				long p = qHat * (vn[i] & MASK);
+				t = (un[i + j] & MASK) - borrow - (p & MASK);
+				un[i + j] = (int) t;
+				borrow = (p >>> 32) - (t >> 32);
+			}
+			t = (un[j + n] & MASK) - borrow;
+			un[j + n] = (int) t;
+			q[j] = (int) qHat;
+			if (t < 0) {    // the quotient digit was still one too big, so add the divisor back
+				q[j]--;
+				long carry = 0;
+				for (int i = 0; i < n; i++) {
+					t = (un[i + j] & MASK) + (vn[i] & MASK) + carry;
+					un[i + j] = (int) t;
+					carry = t >>> 32;
+				}
+				un[j + n] += (int) carry;
+			}
+		}
+
+		int[] r = new int[n];    // to undo the normalisation of the remainder
+		for (int i = 0; i < n - 1; i++) {
+			r[i] = (un[i] >>> shift) | (shift == 0 ? 0 : un[i + 1] << (32 - shift));
+		}
+		r[n - 1] = un[n - 1] >>> shift | (shift == 0 ? 0 : un[n] << (32 - shift));
+		return new long[][] {fromDigits(q), fromDigits(r)};
+	}
+
+
+	/**
+	 * This method is to split limbs into 32-bit digits, lowest digit first, without zero digits at the top.
+	 * @param x the trimmed limbs of the number
+	 * @return the 32-bit digits
+	 */
+	private static int[] toDigits(long[] x) {
+		int len = 2 * x.length;
+		if (len > 0 && (x[x.length - 1] >>> 32) == 0) {
+			len--;
+		}
+		int[] digits = new int[len];
+		for (int i = 0; i < len; i++) {
+			digits[i] = (int) (x[i >>> 1] >>> ((i & 1) << 5));
+		}
+		return digits;
+	}
+
+
+	/**
+	 * This method is to put 32-bit digits back together into limbs.
+	 * @param digits the 32-bit digits, lowest digit first
+	 * @return the trimmed limbs of the number
+	 */
+	private static long[] fromDigits(int[] digits) {
+		long[] x = new long[(digits.length + 1) / 2];
+		for (int i = 0; i < digits.length; i++) {
+			x[i >>> 1] |= (digits[i] & MASK) << ((i & 1) << 5);
+		}
+		return LimbArithmetic.trim(x);
+	}
+}
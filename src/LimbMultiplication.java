@@ -0,0 +1,239 @@
+import java.util.Arrays;
+
+/**
+ * The LimbMultiplication class multiplies numbers given as trimmed arrays of 64-bit limbs (see LimbArithmetic.trim).
+ * Small operands use the schoolbook method, bigger ones Karatsuba, and the biggest ones Toom-3,
+ * each level splitting the operands into parts that are multiplied by the level below.
+ *
+ * @author Yuxin Xiang
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public final class LimbMultiplication {
+	static final int KARATSUBA_THRESHOLD = 40;    // the number of limbs of the shorter operand from which Karatsuba is used
+	static final int TOOM3_THRESHOLD = 120;       // the number of limbs of the shorter operand from which Toom-3 is used
+
+	private static final long[] ZERO = new long[0];
+
+
+	private LimbMultiplication() {
+	}
+
+
+	/**
+	 * This method is to multiply two numbers, choosing the method from the operand sizes.
+	 * @param x the trimmed limbs of the first number to multiply
+	 * @param y the trimmed limbs of the second number to multiply
+	 * @return the trimmed limbs of x * y
+	 */
+	static long[] multiply(long[] x, long[] y) {
+		if (x.length < y.length) {    // make x the longer number
+			long[] tmp = x; x = y; y = tmp;
+		}
+		if (y.length == 0) {
+			return ZERO;
+		}
+		if (y.length < KARATSUBA_THRESHOLD) {
+			return schoolbook(x, y);
+		}
+		if (x.length >= 2 * y.length) {    // the operands are too unbalanced to split at the same place
+			return unbalanced(x, y);
+		}
+		if (y.length < TOOM3_THRESHOLD) {
+			return karatsuba(x, y);
+		}
+		return toom3(x, y);
+	}
+
+
+	/**
+	 * This method is to multiply two numbers limb by limb, adding every partial product into the result the same way it is done by hand.
+	 * @param x the trimmed limbs of the first number to multiply
+	 * @param y the trimmed limbs of the second number to multiply
+	 * @return the trimmed limbs of x * y
+	 */
+	static long[] schoolbook(long[] x, long[] y) {
+		long[] z = new long[x.length + y.length];
+		for (int i = 0; i < x.length; i++) {
+			long xi = x[i];
+			long carry = 0;
+			for (int j = 0; j < y.length; j++) {    // z[i + j] + xi * y[j] + carry always fits in 128 bits
+				long yj = y[j];
+				long low = xi * yj;
+				long high = Math.multiplyHigh(xi, yj) + ((xi >> 63) & yj) + ((yj >> 63) & xi);   // the unsigned high half
+				long sum = low + z[i + j];
+				high += (Long.compareUnsigned(sum, low) < 0) ? 1 : 0;
+				long total = sum + carry;
+				high += (Long.compareUnsigned(total, sum) < 0) ? 1 : 0;
+				z[i + j] = total;
+				carry = high;
+			}
+			z[i + y.length] = carry;
+		}
+		return LimbArithmetic.trim(z);
+	}
+
+
+	/**
+	 * This method is to multiply a long number by a much shorter one, cutting the long one into slices as long as the short one.
+	 * @param x the trimmed limbs of the longer number
+	 * @param y the trimmed limbs of the shorter number
+	 * @return the trimmed limbs of x * y
+	 */
+	private static long[] unbalanced(long[] x, long[] y) {
+		long[] z = new long[x.length + y.length];
+		for (int offset = 0; offset < x.length; offset += y.length) {
+			long[] slice = LimbArithmetic.trim(Arrays.copyOfRange(x, offset, Math.min(offset + y.length, x.length)));
+			LimbArithmetic.addInto(z, multiply(slice, y), offset);
+		}
+		return LimbArithmetic.trim(z);
+	}
+
+
+	/**
+	 * This method is to multiply two numbers with Karatsuba's method: splitting both into a higher and a lower half,
+	 * the product only needs three half-size products, x1 * y1, x0 * y0 and (x0 + x1) * (y0 + y1).
+	 * @param x the trimmed limbs of the longer number
+	 * @param y the trimmed limbs of the shorter number, longer than half of x
+	 * @return the trimmed limbs of x * y
+	 */
+	private static long[] karatsuba(long[] x, long[] y) {
+		int half = (x.length + 1) / 2;
+		long[] x0 = LimbArithmetic.lowWords(x, half), x1 = LimbArithmetic.highWords(x, half);
+		long[] y0 = LimbArithmetic.lowWords(y, half), y1 = LimbArithmetic.highWords(y, half);
+
+		long[] z0 = multiply(x0, y0);
+		long[] z2 = multiply(x1, y1);
+		long[] z1 = multiply(LimbArithmetic.add(x0, x1), LimbArithmetic.add(y0, y1));
+		z1 = LimbArithmetic.subtract(LimbArithmetic.subtract(z1, z0), z2);   // the middle part x0 * y1 + x1 * y0
+
+		long[] z = new long[x.length + y.length];
+		LimbArithmetic.addInto(z, z0, 0);
+		LimbArithmetic.addInto(z, z1, half);
+		LimbArithmetic.addInto(z, z2, 2 * half);
+		return LimbArithmetic.trim(z);
+	}
+
+
+	/**
+	 * This method is to multiply two numbers with the Toom-3 method: splitting both into three parts,
+	 * the product is interpolated from five products of third-size numbers, evaluated at 0, 1, -1, 2 and infinity
+	 * (using Bodrato's sequence of steps for the interpolation). The values at -1 might be negative, so they carry a sign.
+	 * @param x the trimmed limbs of the longer number
+	 * @param y the trimmed limbs of the shorter number, longer than half of x
+	 * @return the trimmed limbs of x * y
+	 */
+	private static long[] toom3(long[] x, long[] y) {
+		int k = (x.length + 2) / 3;    // the number of limbs in every part
+		Signed x0 = new Signed(LimbArithmetic.lowWords(x, k), false);
+		Signed x1 = new Signed(LimbArithmetic.lowWords(LimbArithmetic.highWords(x, k), k), false);
+		Signed x2 = new Signed(LimbArithmetic.highWords(x, 2 * k), false);
+		Signed y0 = new Signed(LimbArithmetic.lowWords(y, k), false);
+		Signed y1 = new Signed(LimbArithmetic.lowWords(LimbArithmetic.highWords(y, k), k), false);
+		Signed y2 = new Signed(LimbArithmetic.highWords(y, 2 * k), false);
+
+		Signed v0 = x0.multiply(y0);
+		Signed dx = x2.add(x0), dy = y2.add(y0);
+		Signed vm1 = dx.subtract(x1).multiply(dy.subtract(y1));
+		dx = dx.add(x1);
+		dy = dy.add(y1);
+		Signed v1 = dx.multiply(dy);
+		Signed v2 = dx.add(x2).shiftLeftOne().subtract(x0).multiply(dy.add(y2).shiftLeftOne().subtract(y0));
+		Signed vInf = x2.multiply(y2);
+
+		Signed t2 = v2.subtract(vm1).divideExactBy3();
+		Signed tm1 = v1.subtract(vm1).shiftRightOne();
+		Signed t1 = v1.subtract(v0);
+		t2 = t2.subtract(t1).shiftRightOne();
+		t1 = t1.subtract(tm1).subtract(vInf);
+		t2 = t2.subtract(vInf.shiftLeftOne());
+		tm1 = tm1.subtract(t2);
+
+		long[] z = new long[x.length + y.length];    // every coefficient is non-negative once interpolated
+		LimbArithmetic.addInto(z, v0.magnitude, 0);
+		LimbArithmetic.addInto(z, tm1.magnitude, k);
+		LimbArithmetic.addInto(z, t1.magnitude, 2 * k);
+		LimbArithmetic.addInto(z, t2.magnitude, 3 * k);
+		LimbArithmetic.addInto(z, vInf.magnitude, 4 * k);
+		return LimbArithmetic.trim(z);
+	}
+
+
+	/**
+	 * This method is to divide a number by 3 when it is known to be a multiple of 3, going from the lowest limb up
+	 * and multiplying every limb by the inverse of 3 modulo 2^64 instead of dividing.
+	 * @param x the trimmed limbs of a multiple of 3
+	 * @return the trimmed limbs of x / 3
+	 */
+	static long[] divideExactBy3(long[] x) {
+		final long inverseOf3 = 0xAAAAAAAAAAAAAAABL;    // 3 * inverseOf3 = 1 modulo 2^64
+		long[] z = new long[x.length];
+		long borrow = 0;
+		for (int i = 0; i < x.length; i++) {
+			long w = x[i] - borrow;
+			borrow = (Long.compareUnsigned(x[i], borrow) < 0) ? 1 : 0;
+			long q = w * inverseOf3;
+			z[i] = q;
+			// 3 * q reaches past this limb by 1 from 2^64 / 3 and by 2 from 2 * 2^64 / 3
+			borrow += ((Long.compareUnsigned(q, 0x5555555555555556L) >= 0) ? 1 : 0)
+					+ ((Long.compareUnsigned(q, 0xAAAAAAAAAAAAAAABL) >= 0) ? 1 : 0);
+		}
+		return LimbArithmetic.trim(z);
+	}
+
+
+	/**
+	 * The Signed class is a magnitude with a sign, for the values that might go negative during Toom-3.
+	 */
+	private static final class Signed {
+		final long[] magnitude;
+		final boolean negative;
+
+
+		Signed(long[] magnitude, boolean negative) {
+			this.magnitude = magnitude;
+			this.negative = negative && magnitude.length > 0;
+		}
+
+
+		Signed add(Signed other) {
+			return addSigned(other.magnitude, other.negative);
+		}
+
+
+		Signed subtract(Signed other) {
+			return addSigned(other.magnitude, !other.negative);
+		}
+
+
+		private Signed addSigned(long[] other, boolean otherNegative) {
+			if (negative == otherNegative) {
+				return new Signed(LimbArithmetic.add(magnitude, other), negative);
+			}
+			if (LimbArithmetic.compare(magnitude, other) >= 0) {
+				return new Signed(LimbArithmetic.subtract(magnitude, other), negative);
+			}
+			return new Signed(LimbArithmetic.subtract(other, magnitude), otherNegative);
+		}
+
+
+		Signed multiply(Signed other) {
+			return new Signed(LimbMultiplication.multiply(magnitude, other.magnitude), negative != other.negative);
+		}
+
+
+		Signed shiftLeftOne() {
+			return new Signed(LimbArithmetic.shiftLeft(magnitude, 1), negative);
+		}
+
+
+		Signed shiftRightOne() {    // only used on even values, so no rounding is involved
+			return new Signed(LimbArithmetic.shiftRight(magnitude, 1), negative);
+		}
+
+
+		Signed divideExactBy3() {
+			return new Signed(LimbMultiplication.divideExactBy3(magnitude), negative);
+		}
+	}
+}
@@ -1,27 +1,428 @@
-
-public class Main {
-	private final static String P_NAME = "Your Name";
-	private final static String P_STUDENTID = "Your ID";
-	private final static String P_EMAILID = "Your EmailS";	
-	
-	/**
-	 * This is the method to print personal details.
-	 */
-	private static void printPersonalDetails() {		
-		System.out.println("Author: " + P_NAME + "\n" 
-		+ "Student ID: " + P_STUDENTID + "\n" 
-				+ "Email ID: " + P_EMAILID + "\n" 
-		+ "This is my own work as defined by the University's Academic Misconduct Policy.");
-	}
-	
-	
-	public static void main(String[] args) {
-		printPersonalDetails();
-		System.out.println();
-		BitOperations bOperations = new BitOperations();
-		bOperations.processTruthTable();
-		System.out.println();
-		BinaryCalculator bCalculator = new BinaryCalculator(bOperations);
-		bCalculator.processCalculation();	
-	}
-}
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.net.UnixDomainSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+public class Main {
+	private final static String P_NAME = "Your Name";
+	private final static String P_STUDENTID = "Your ID";
+	private final static String P_EMAILID = "Your EmailS";	
+	private final static int BUFFER_SIZE = 1 << 16;    // the buffer size of the batch reader and writer
+	
+	/**
+	 * This is the method to print personal details.
+	 */
+	private static void printPersonalDetails() {		
+		System.out.println("Author: " + P_NAME + "\n" 
+		+ "Student ID: " + P_STUDENTID + "\n" 
+				+ "Email ID: " + P_EMAILID + "\n" 
+		+ "This is my own work as defined by the University's Academic Misconduct Policy.");
+	}
+	
+	
+	/**
+	 * This is the method to add or subtract binary numbers stored in files, either streaming them so they can be bigger than the heap ("--files"),
+	 * or memory-mapping them into BigBinary operands ("--mapped").
+	 * @param args the command line: the mode, the operation (+ or -), the X file, the Y file and the output file
+	 */
+	private static void processFiles(String[] args) {
+		if (args.length != 5 || (!args[1].equals("+") && !args[1].equals("-"))) {
+			System.err.println("Usage: java Main " + args[0] + " <+|-> <X file> <Y file> <output file>");
+			System.exit(2);
+		}
+		try {
+			Path xPath = Paths.get(args[2]), yPath = Paths.get(args[3]), outPath = Paths.get(args[4]);
+			if (args[0].equals("--mapped")) {
+				BigBinary x = BinaryFiles.read(xPath);
+				BigBinary y = BinaryFiles.read(yPath);
+				BinaryFiles.write(args[1].equals("+") ? x.add(y) : x.subtract(y), outPath);
+			}
+			else if (args[1].equals("+")) {
+				BinaryFiles.add(xPath, yPath, outPath);
+			}
+			else {
+				BinaryFiles.subtract(xPath, yPath, outPath);
+			}
+		}
+		catch (IOException | NumberFormatException e) {
+			System.err.println(e.getMessage());
+			System.exit(1);
+		}
+	}
+	
+	
+	/**
+	 * This is the method to evaluate a batch of "op X Y" records from a file or the standard input, writing one result per line to the standard output.
+	 * With "--threads N" the records are evaluated by the multi-threaded pipeline with N worker threads.
+	 * @param args the command line: "--batch", optionally "--threads N" and optionally the file to read the records from
+	 */
+	private static void processBatch(String[] args) {
+		int threads = 0;     // 0 to evaluate the records on the main thread
+		ResultCache cache = null;
+		String file = null;
+		for (int i = 1; i < args.length; i++) {
+			if (args[i].equals("--threads") && i + 1 < args.length) {
+				threads = parseThreads(args[++i]);
+			}
+			else if (args[i].equals("--cache") && i + 1 < args.length) {
+				cache = new ResultCache(parseCacheBits(args[++i]));
+			}
+			else if (file == null) {
+				file = args[i];
+			}
+			else {
+				System.err.println("Usage: java Main --batch [--threads N] [--cache BITS] [records file]");
+				System.exit(2);
+			}
+		}
+		try (BufferedReader in = new BufferedReader(file != null
+				? new InputStreamReader(new FileInputStream(file), StandardCharsets.US_ASCII)
+				: new InputStreamReader(new FileInputStream(FileDescriptor.in), StandardCharsets.US_ASCII), BUFFER_SIZE)) {
+			Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), StandardCharsets.US_ASCII), BUFFER_SIZE);
+			if (threads > 0) {
+				BatchPipeline.process(in, out, threads, cache);
+			}
+			else {
+				BatchProcessor.process(in, out, cache);
+			}
+			if (cache != null) {
+				System.err.println(cache);    // the standard output only holds the results
+			}
+		}
+		catch (IOException e) {
+			System.err.println(e.getMessage());
+			System.exit(1);
+		}
+	}
+	
+	
+	/**
+	 * This is the method to fold signed binary numbers, one per line from a file or the standard input, into a running total and print the total at the end.
+	 * A line that is not a binary number gets its message on the standard error and is left out of the total.
+	 * @param args the command line: "--sum" and optionally the file to read the numbers from
+	 */
+	private static void processSum(String[] args) {
+		if (args.length > 2) {
+			System.err.println("Usage: java Main --sum [numbers file]");
+			System.exit(2);
+		}
+		try (BufferedReader in = new BufferedReader(args.length == 2
+				? new InputStreamReader(new FileInputStream(args[1]), StandardCharsets.US_ASCII)
+				: new InputStreamReader(new FileInputStream(FileDescriptor.in), StandardCharsets.US_ASCII), BUFFER_SIZE)) {
+			BinaryAccumulator total = new BinaryAccumulator();
+			String line;
+			for (long number = 1; (line = in.readLine()) != null; number++) {
+				try {
+					total.add(BigBinary.parse(line));
+				}
+				catch (NumberFormatException e) {
+					if (CalculatorMetrics.ENABLED) {
+						CalculatorMetrics.validationFailure(e.getMessage());
+					}
+					System.err.println("Line " + number + ": " + e.getMessage());
+				}
+			}
+			System.out.println(total);
+		}
+		catch (IOException e) {
+			System.err.println(e.getMessage());
+			System.exit(1);
+		}
+	}
+	
+	
+	/**
+	 * This is the method to convert numbers, one per line from a file or the standard input, from one base to another (2, 10 or 16),
+	 * writing one converted number per line to the standard output. A line that is not a number in the base gets the message instead.
+	 * @param args the command line: "--convert", the base to read, the base to write and optionally the file to read the numbers from
+	 */
+	private static void processConversion(String[] args) {
+		int from = 0, to = 0;
+		if (args.length == 3 || args.length == 4) {
+			from = parseRadix(args[1]);
+			to = parseRadix(args[2]);
+		}
+		if (from == 0 || to == 0) {
+			System.err.println("Usage: java Main --convert <2|10|16> <2|10|16> [numbers file]");
+			System.exit(2);
+		}
+		try (BufferedReader in = new BufferedReader(args.length == 4
+				? new InputStreamReader(new FileInputStream(args[3]), StandardCharsets.US_ASCII)
+				: new InputStreamReader(new FileInputStream(FileDescriptor.in), StandardCharsets.US_ASCII), BUFFER_SIZE)) {
+			Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), StandardCharsets.US_ASCII), BUFFER_SIZE);
+			String line;
+			while ((line = in.readLine()) != null) {
+				try {
+					out.write(BigBinary.parse(line, from).toString(to));
+				}
+				catch (NumberFormatException e) {
+					if (CalculatorMetrics.ENABLED) {
+						CalculatorMetrics.validationFailure(e.getMessage());
+					}
+					out.write(e.getMessage());
+				}
+				out.write('\n');
+			}
+			out.flush();
+		}
+		catch (IOException e) {
+			System.err.println(e.getMessage());
+			System.exit(1);
+		}
+	}
+	
+	
+	/**
+	 * This is the method to read a base from the command line.
+	 * @param arg the argument
+	 * @return the base, or 0 if it is not 2, 10 or 16
+	 */
+	private static int parseRadix(String arg) {
+		switch (arg) {
+			case "2": return 2;
+			case "10": return 10;
+			case "16": return 16;
+			default: return 0;
+		}
+	}
+	
+	
+	/**
+	 * This is the method to carry out statements, one per line from a file or the standard input: "name = expression" binds a variable
+	 * and prints nothing, an expression prints its value (or the message of the error) on its own line.
+	 * The time of the slowest nodes of a large expression, or of all its nodes with "--all-timings", is printed to the standard error.
+	 * @param args the command line: "--eval", optionally "--cache BITS" and "--all-timings", and optionally the file to read the statements from
+	 */
+	private static void processExpressions(String[] args) {
+		ResultCache cache = null;
+		boolean allTimings = false;
+		String file = null;
+		for (int i = 1; i < args.length; i++) {
+			if (args[i].equals("--cache") && i + 1 < args.length) {
+				cache = new ResultCache(parseCacheBits(args[++i]));
+			}
+			else if (args[i].equals("--all-timings")) {
+				allTimings = true;
+			}
+			else if (file == null) {
+				file = args[i];
+			}
+			else {
+				System.err.println("Usage: java Main --eval [--cache BITS] [--all-timings] [statements file]");
+				System.exit(2);
+			}
+		}
+		try (BufferedReader in = new BufferedReader(file != null
+				? new InputStreamReader(new FileInputStream(file), StandardCharsets.US_ASCII)
+				: new InputStreamReader(new FileInputStream(FileDescriptor.in), StandardCharsets.US_ASCII), BUFFER_SIZE)) {
+			Writer out = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), StandardCharsets.US_ASCII), BUFFER_SIZE);
+			ExpressionEngine engine = new ExpressionEngine(cache);
+			String statement;
+			while ((statement = in.readLine()) != null) {
+				try {
+					BigBinary result = engine.execute(statement);
+					if (result == null) {    // a variable was bound
+						continue;
+					}
+					out.write(result.toCharArray());
+					String timings = engine.timings(allTimings);
+					if (timings != null) {
+						out.write('\n');
+						out.flush();    // to keep the report under its result on a terminal
+						System.err.println(timings);
+						continue;
+					}
+				}
+				catch (ExpressionEngine.ExpressionException | ArithmeticException e) {
+					out.write(e.getMessage());
+				}
+				out.write('\n');
+			}
+			out.flush();
+		}
+		catch (IOException e) {
+			System.err.println(e.getMessage());
+			System.exit(1);
+		}
+	}
+	
+	
+	/**
+	 * This is the method to serve calculations over the binary protocol of WireFormat until the process is stopped,
+	 * on a port of the loopback address or on a Unix domain socket.
+	 * @param args the command line: "--serve", the port or the path of the socket file, optionally "--threads N" and "--cache BITS"
+	 */
+	private static void serve(String[] args) {
+		int threads = 1;     // the number of event loops
+		ResultCache cache = null;
+		String where = null;
+		for (int i = 1; i < args.length; i++) {
+			if (args[i].equals("--threads") && i + 1 < args.length) {
+				threads = parseThreads(args[++i]);
+			}
+			else if (args[i].equals("--cache") && i + 1 < args.length) {
+				cache = new ResultCache(parseCacheBits(args[++i]));
+			}
+			else if (where == null) {
+				where = args[i];
+			}
+			else {
+				where = null;
+				break;
+			}
+		}
+		if (where == null) {
+			System.err.println("Usage: java Main --serve <port|socket file> [--threads N] [--cache BITS]");
+			System.exit(2);
+		}
+		try {
+			SocketAddress address = where.chars().allMatch(Character::isDigit)
+					? new InetSocketAddress(InetAddress.getLoopbackAddress(), Integer.parseInt(where))
+					: UnixDomainSocketAddress.of(where);
+			CalculationServer server = new CalculationServer(address, threads, cache);
+			Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+				try {
+					server.close();    // to remove the socket file on Ctrl+C
+				}
+				catch (IOException e) {
+				}
+			}));
+			System.err.println("Listening on " + server.address());
+			server.serve();
+		}
+		catch (IOException | IllegalArgumentException e) {    // e.g., the port is in use or out of range
+			System.err.println(e.getMessage());
+			System.exit(1);
+		}
+	}
+	
+	
+	/**
+	 * This is the method to carry out a single calculation given on the command line (e.g., "+ 1011 110") and print its result, for scripts that start
+	 * a JVM for every calculation. The banner and the truth tables are skipped, and nothing on the way compiles a regular expression or bootstraps
+	 * a lambda, a stream or a string concatenation, so only the classes of the calculation itself are loaded.
+	 * @param op the operation, from the first argument
+	 * @param args the command line: the operation symbol, X and, unless the operation is unary, Y
+	 */
+	private static void calculateOnce(Operation op, String[] args) {
+		if (args.length != (op.isUnary() ? 2 : 3)) {
+			System.err.println(op.isUnary() ? "Usage: java Main <~|#> X" : "Usage: java Main <operation> X Y");
+			System.exit(2);
+		}
+		try {
+			BigBinary x = BigBinary.parse(args[1]);
+			BigBinary y = op.isUnary() ? null : BigBinary.parse(args[2]);
+			System.out.println(op.apply(x, y).toCharArray());
+		}
+		catch (NumberFormatException e) {
+			if (CalculatorMetrics.ENABLED) {
+				CalculatorMetrics.validationFailure(e.getMessage());
+			}
+			System.err.println(e.getMessage());
+			System.exit(1);
+		}
+		catch (ArithmeticException e) {    // e.g., a division by zero
+			System.err.println(e.getMessage());
+			System.exit(1);
+		}
+	}
+	
+	
+	/**
+	 * This is the method to read the number of worker threads from the command line.
+	 * @param arg the argument after "--threads"
+	 * @return the number of worker threads, at least 1
+	 */
+	private static int parseThreads(String arg) {
+		try {
+			int threads = Integer.parseInt(arg);
+			if (threads >= 1) {
+				return threads;
+			}
+		}
+		catch (NumberFormatException e) {
+		}
+		System.err.println("The number of threads must be a positive integer.");
+		System.exit(2);
+		return 0;
+	}
+	
+	
+	/**
+	 * This is the method to read the size of the result cache from the command line.
+	 * @param arg the argument after "--cache"
+	 * @return the most bits the cache can hold
+	 */
+	private static long parseCacheBits(String arg) {
+		try {
+			long bits = Long.parseLong(arg);
+			if (bits >= 0) {
+				return bits;
+			}
+		}
+		catch (NumberFormatException e) {
+		}
+		System.err.println("The cache size must be a non-negative number of bits.");
+		System.exit(2);
+		return 0;
+	}
+	
+	
+	public static void main(String[] args) {
+		Operation op = (args.length > 0) ? Operation.fromSymbol(args[0]) : null;
+		if (op != null) {
+			calculateOnce(op, args);
+			return;
+		}
+		if (args.length > 0 && args[0].equals("--batch")) {
+			processBatch(args);
+			return;
+		}
+		if (args.length > 0 && args[0].equals("--convert")) {
+			processConversion(args);
+			return;
+		}
+		if (args.length > 0 && args[0].equals("--eval")) {
+			processExpressions(args);
+			return;
+		}
+		if (args.length > 0 && args[0].equals("--sum")) {
+			processSum(args);
+			return;
+		}
+		if (args.length > 0 && args[0].equals("--serve")) {
+			serve(args);
+			return;
+		}
+		if (args.length > 0 && (args[0].equals("--files") || args[0].equals("--mapped"))) {
+			processFiles(args);
+			return;
+		}
+		ResultCache cache = null;
+		if (args.length == 2 && args[0].equals("--cache")) {
+			cache = new ResultCache(parseCacheBits(args[1]));
+		}
+		printPersonalDetails();
+		System.out.println();
+		BitOperations bOperations = new BitOperations();
+		bOperations.processTruthTable();
+		System.out.println();
+		BinaryCalculator bCalculator = new BinaryCalculator(cache);
+		bCalculator.processCalculation();	
+		if (cache != null) {
+			System.err.println(cache);
+		}
+	}
+}
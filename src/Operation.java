@@ -0,0 +1,220 @@
+/**
+ * The Operation enum lists the operations the calculator can carry out on two binary numbers,
+ * each one tied to the symbol the user enters for it.
+ *
+ * @author Yuxin Xiang
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public enum Operation {
+	ADD("+") {
+		@Override
+		BigBinary calculate(BigBinary x, BigBinary y) {
+			return x.add(y);
+		}
+	},
+	SUBTRACT("-") {
+		@Override
+		BigBinary calculate(BigBinary x, BigBinary y) {
+			return x.subtract(y);
+		}
+	},
+	MULTIPLY("*") {
+		@Override
+		BigBinary calculate(BigBinary x, BigBinary y) {
+			return x.multiply(y);
+		}
+	},
+	DIVIDE("/") {
+		@Override
+		BigBinary calculate(BigBinary x, BigBinary y) {
+			return x.divide(y);
+		}
+	},
+	REMAINDER("%") {
+		@Override
+		BigBinary calculate(BigBinary x, BigBinary y) {
+			return x.remainder(y);
+		}
+	},
+	AND("&") {
+		@Override
+		BigBinary calculate(BigBinary x, BigBinary y) {
+			return x.and(y);
+		}
+	},
+	OR("|") {
+		@Override
+		BigBinary calculate(BigBinary x, BigBinary y) {
+			return x.or(y);
+		}
+	},
+	XOR("^") {
+		@Override
+		BigBinary calculate(BigBinary x, BigBinary y) {
+			return x.xor(y);
+		}
+	},
+	NOT("~", true) {
+		@Override
+		BigBinary calculate(BigBinary x, BigBinary y) {
+			return x.not();
+		}
+	},
+	SHIFT_LEFT("<<") {
+		@Override
+		BigBinary calculate(BigBinary x, BigBinary y) {
+			return x.shiftLeft(shiftDistance(y));
+		}
+	},
+	SHIFT_RIGHT(">>") {
+		@Override
+		BigBinary calculate(BigBinary x, BigBinary y) {
+			return x.shiftRight(shiftDistance(y));
+		}
+	},
+	POPCOUNT("#", true) {
+		@Override
+		BigBinary calculate(BigBinary x, BigBinary y) {
+			return BigBinary.valueOf(x.bitCount());
+		}
+	};
+
+	private static final Operation[] OPERATIONS = values();    // values() makes a new array on every call
+
+	private final String symbol;
+	private final boolean unary;    // to mark an operation that only takes X
+
+
+	Operation(String symbol) {
+		this(symbol, false);
+	}
+
+
+	Operation(String symbol, boolean unary) {
+		this.symbol = symbol;
+		this.unary = unary;
+	}
+
+
+	/**
+	 * This method is to get the symbol the user enters for the operation.
+	 * @return the symbol (e.g., "+")
+	 */
+	public String symbol() {
+		return symbol;
+	}
+
+
+	/**
+	 * This method is to check if the operation only takes X (e.g., ~X), so no Y has to be entered for it.
+	 * @return true if the operation only takes X
+	 */
+	public boolean isUnary() {
+		return unary;
+	}
+
+
+	/**
+	 * This method is to check if the operation gives the same result for both orders of its operands.
+	 * @return true if X op Y is always Y op X
+	 */
+	public boolean isCommutative() {
+		return this == ADD || this == MULTIPLY || this == AND || this == OR || this == XOR;
+	}
+
+
+	/**
+	 * This method is to carry out the operation, timing it when the instrumentation is switched on (see CalculatorMetrics).
+	 * @param x the binary number X
+	 * @param y the binary number Y, ignored by a unary operation (it might be null)
+	 * @return the result of X op Y, or of op X for a unary operation
+	 * @throws ArithmeticException if the operation cannot be carried out (e.g., it divides by zero)
+	 */
+	public BigBinary apply(BigBinary x, BigBinary y) {
+		if (!CalculatorMetrics.ENABLED) {
+			return calculate(x, y);
+		}
+		long start = System.nanoTime();
+		try {
+			BigBinary result = calculate(x, y);
+			CalculatorMetrics.record(this, x, unary ? null : y, System.nanoTime() - start);
+			return result;
+		}
+		catch (ArithmeticException e) {
+			CalculatorMetrics.failure(this);
+			throw e;
+		}
+	}
+
+
+	/**
+	 * This method is to carry out the operation itself.
+	 * @param x the binary number X
+	 * @param y the binary number Y, ignored by a unary operation (it might be null)
+	 * @return the result of X op Y, or of op X for a unary operation
+	 * @throws ArithmeticException if the operation cannot be carried out
+	 */
+	abstract BigBinary calculate(BigBinary x, BigBinary y);
+
+
+	/**
+	 * This method is to turn Y into the number of digits to shift by. A distance too far for a long is clamped,
+	 * which still shifts every digit out to the right, and is still too far to the left.
+	 * @param y the binary number Y
+	 * @return the number of digits to shift by
+	 */
+	private static long shiftDistance(BigBinary y) {
+		long distance = (y.bitLength() > 62) ? Long.MAX_VALUE : (y.limbCount() == 0 ? 0 : y.limbs()[0]);
+		return y.signum() * distance;
+	}
+
+
+	/**
+	 * This method is to find the operation for a symbol.
+	 * @param symbol the symbol entered by the user
+	 * @return the operation, or null if the symbol is not a valid operation
+	 */
+	public static Operation fromSymbol(String symbol) {
+		for (Operation op : OPERATIONS) {
+			if (op.symbol.equals(symbol)) {
+				return op;
+			}
+		}
+		return null;
+	}
+
+
+	/**
+	 * This method is to find the operation for a symbol held in a part of a Latin-1 byte array, without cutting it into a string.
+	 * @param str the bytes that hold the symbol
+	 * @param from the index of the first byte of the symbol
+	 * @param to the index right after the last byte of the symbol
+	 * @return the operation, or null if the part of the array is not a valid operation
+	 */
+	static Operation fromSymbol(byte[] str, int from, int to) {
+		for (Operation op : OPERATIONS) {
+			if (to - from == op.symbol.length() && matches(op.symbol, str, from)) {
+				return op;
+			}
+		}
+		return null;
+	}
+
+
+	/**
+	 * This method is to check if a symbol is spelled out in a byte array at an index.
+	 * @param symbol the symbol, which only has ASCII characters
+	 * @param str the bytes to check
+	 * @param from the index to check the symbol at, with room for the whole symbol
+	 * @return true if the bytes match the symbol
+	 */
+	private static boolean matches(String symbol, byte[] str, int from) {
+		for (int i = 0; i < symbol.length(); i++) {
+			if (str[from + i] != symbol.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
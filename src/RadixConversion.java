@@ -0,0 +1,293 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The RadixConversion class converts numbers given as trimmed arrays of 64-bit limbs (see LimbArithmetic.trim) from and to digits in base 2, 10 or 16.
+ * Bases 2 and 16 map straight onto the bits, one or four bits per digit, so they are converted in a single pass.
+ * Base 10 does not, so a big number is converted by divide and conquer: its digits are split at a power of ten 10^(18 * 2^k)
+ * and the two halves are converted on their own, then joined with a multiplication (parsing) or split with a division (rendering).
+ * The powers of ten are squared from one another and kept for the next conversions, and the fast multiplication and division
+ * do the heavy lifting, so the conversion takes about as long as a multiplication of the same size times its log, instead of quadratic time.
+ *
+ * @author Yuxin Xiang
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public final class RadixConversion {
+	static final int SMALL_LIMBS = 32;              // the number of limbs below which base 10 is rendered by repeated short division
+	static final int SMALL_DIGITS = 18 * 32;        // the number of decimal digits below which base 10 is parsed chunk by chunk
+
+	private static final int CHUNK_DIGITS = 18;                       // the decimal digits that always fit in a long
+	private static final long CHUNK = 1_000_000_000_000_000_000L;     // 10^18
+	private static final long SHORT_DIVISOR = 1_000_000_000L;         // 10^9, which leaves room for 32 more bits in a long
+	private static final int SHORT_DIGITS = 9;
+	private static final long MASK = 0xFFFFFFFFL;
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+	private static final byte[] HEX_VALUES = new byte[256];           // the value of every hexadecimal digit, -1 for any other byte
+
+	private static final List<long[]> POWERS = new ArrayList<>();     // 10^(18 * 2^k) at index k, made on first use
+
+	static {
+		Arrays.fill(HEX_VALUES, (byte) -1);
+		for (int i = 0; i < 16; i++) {
+			HEX_VALUES[HEX_DIGITS[i]] = (byte) i;
+			HEX_VALUES[Character.toUpperCase(HEX_DIGITS[i])] = (byte) i;
+		}
+		POWERS.add(new long[] {CHUNK});
+	}
+
+
+	private RadixConversion() {
+	}
+
+
+	/**
+	 * This method is to check that a base is one of the supported ones.
+	 * @param radix the base
+	 * @throws IllegalArgumentException if the base is not 2, 10 or 16
+	 */
+	static void checkRadix(int radix) {
+		if (radix != 2 && radix != 10 && radix != 16) {
+			throw new IllegalArgumentException("The radix must be 2, 10 or 16.");
+		}
+	}
+
+
+	/**
+	 * This method is to parse the digits of a number in a part of a byte array.
+	 * @param digits the Latin-1 bytes that hold the digits, highest digit first
+	 * @param from the index of the highest digit
+	 * @param to the index right after the lowest digit
+	 * @param radix the base, 2, 10 or 16
+	 * @return the trimmed limbs of the number
+	 * @throws NumberFormatException if the part of the array is empty or holds a byte that is not a digit of the base
+	 */
+	static long[] parse(byte[] digits, int from, int to, int radix) {
+		checkRadix(radix);
+		if (radix == 2) {
+			return LimbArithmetic.trim(BinaryScanner.pack(digits, from, to));
+		}
+		if (radix == 16) {
+			return parseHex(digits, from, to);
+		}
+		if (from >= to) {
+			throw new NumberFormatException("Not a decimal number!");
+		}
+		for (int i = from; i < to; i++) {    // the digits are validated once, up front, so the recursion does not have to
+			if (digits[i] < '0' || digits[i] > '9') {
+				throw new NumberFormatException("Not a decimal number!");
+			}
+		}
+		return parseDecimal(digits, from, to);
+	}
+
+
+	/**
+	 * This method is to render a number into digits without leading zeros, appending them to a string builder.
+	 * @param x the trimmed limbs of the number
+	 * @param radix the base, 2, 10 or 16
+	 * @param sb the string builder to append the digits to
+	 */
+	static void append(long[] x, int radix, StringBuilder sb) {
+		checkRadix(radix);
+		if (radix == 2) {
+			char[] chars = new char[(int) Math.max(LimbArithmetic.bitLength(x, x.length), 1)];
+			LimbArithmetic.renderBinary(x, x.length, chars, 0);
+			sb.append(chars);
+		}
+		else if (radix == 16) {
+			appendHex(x, sb);
+		}
+		else {
+			appendDecimal(x, 0, sb);
+		}
+	}
+
+
+	/**
+	 * This method is to pack hexadecimal digits into limbs, 16 digits for every limb, going from the lowest digit up.
+	 * @param digits the bytes that hold the digits, highest digit first
+	 * @param from the index of the highest digit
+	 * @param to the index right after the lowest digit
+	 * @return the trimmed limbs of the number
+	 * @throws NumberFormatException if the part of the array is empty or holds a byte that is not a hexadecimal digit
+	 */
+	private static long[] parseHex(byte[] digits, int from, int to) {
+		if (from >= to) {
+			throw new NumberFormatException("Not a hexadecimal number!");
+		}
+		long[] words = new long[(to - from + 15) / 16];
+		int invalid = 0;
+		int pos = to;
+		for (int w = 0; pos > from; w++) {
+			long word = 0;
+			for (int shift = 0; shift < LimbArithmetic.LIMB_BITS && pos > from; shift += 4) {
+				int v = HEX_VALUES[digits[--pos] & 0xFF];
+				invalid |= v;    // negative only if some byte was not a digit
+				word |= (long) (v & 15) << shift;
+			}
+			words[w] = word;
+		}
+		if (invalid < 0) {
+			throw new NumberFormatException("Not a hexadecimal number!");
+		}
+		return LimbArithmetic.trim(words);
+	}
+
+
+	/**
+	 * This method is to render a number into hexadecimal digits, 4 bits for every digit.
+	 * @param x the trimmed limbs of the number
+	 * @param sb the string builder to append the digits to
+	 */
+	private static void appendHex(long[] x, StringBuilder sb) {
+		char[] chars = new char[(int) Math.max((LimbArithmetic.bitLength(x, x.length) + 3) / 4, 1)];    // zero is still rendered as a single digit
+		for (int pos = chars.length - 1, i = 0; pos >= 0; i++) {    // from the lowest digit up, 16 digits for every limb
+			long word = x.length == 0 ? 0 : x[i];
+			for (int d = 0; d < 16 && pos >= 0; d++, word >>>= 4) {
+				chars[pos--] = HEX_DIGITS[(int) word & 15];
+			}
+		}
+		sb.append(chars);
+	}
+
+
+	/**
+	 * This method is to get the power of ten 10^(18 * 2^k), squaring the biggest one known until it is there.
+	 * @param k the index of the power
+	 * @return the trimmed limbs of the power, which must not be modified
+	 */
+	private static synchronized long[] power(int k) {
+		while (POWERS.size() <= k) {
+			long[] last = POWERS.get(POWERS.size() - 1);
+			POWERS.add(LimbMultiplication.multiply(last, last));
+		}
+		return POWERS.get(k);
+	}
+
+
+	/**
+	 * This method is to parse decimal digits by divide and conquer: the lowest 18 * 2^k digits (k as big as it can be while still leaving some digits above them)
+	 * are parsed on their own, and the digits above them are parsed and multiplied by 10^(18 * 2^k).
+	 * @param digits the bytes that hold the digits, already validated
+	 * @param from the index of the highest digit
+	 * @param to the index right after the lowest digit
+	 * @return the trimmed limbs of the number
+	 */
+	private static long[] parseDecimal(byte[] digits, int from, int to) {
+		if (to - from <= SMALL_DIGITS) {
+			return parseDecimalSmall(digits, from, to);
+		}
+		int k = 0;
+		while ((CHUNK_DIGITS << (k + 1)) < to - from) {
+			k++;
+		}
+		int split = to - (CHUNK_DIGITS << k);
+		long[] high = parseDecimal(digits, from, split);
+		long[] low = parseDecimal(digits, split, to);
+		return LimbArithmetic.add(LimbMultiplication.multiply(high, power(k)), low);
+	}
+
+
+	/**
+	 * This method is to parse a few decimal digits 18 at a time, multiplying the number so far by 10^18 and adding the next chunk.
+	 * @param digits the bytes that hold the digits, already validated
+	 * @param from the index of the highest digit
+	 * @param to the index right after the lowest digit
+	 * @return the trimmed limbs of the number
+	 */
+	private static long[] parseDecimalSmall(byte[] digits, int from, int to) {
+		long[] z = new long[(to - from) / 19 + 1];    // every limb holds more than 19 decimal digits
+		int len = 0;
+		int pos = from;
+		for (int chunkDigits = (to - from - 1) % CHUNK_DIGITS + 1; pos < to; chunkDigits = CHUNK_DIGITS) {   // the first chunk takes what is left over
+			long chunk = 0, scale = 1;
+			for (int end = pos + chunkDigits; pos < end; pos++) {
+				chunk = chunk * 10 + (digits[pos] - '0');
+				scale *= 10;
+			}
+			long carry = chunk;    // z = z * scale + chunk
+			for (int i = 0; i < len; i++) {
+				long a = z[i];
+				long low = a * scale;
+				long high = Math.multiplyHigh(a, scale) + ((a >> 63) & scale);    // the unsigned high half, scale being positive
+				long s = low + carry;
+				z[i] = s;
+				carry = high + (Long.compareUnsigned(s, low) < 0 ? 1 : 0);
+			}
+			if (carry != 0) {
+				z[len++] = carry;
+			}
+		}
+		return LimbArithmetic.trim(z);
+	}
+
+
+	/**
+	 * This method is to render a number into decimal digits by divide and conquer: it is divided by 10^(18 * 2^k) with k chosen so that the power
+	 * has about half its bits, then the quotient is rendered as the higher digits and the remainder, padded with zeros to 18 * 2^k digits, as the lower ones.
+	 * @param x the trimmed limbs of the number
+	 * @param pad the exact number of digits to render, with leading zeros, or 0 for no leading zeros
+	 * @param sb the string builder to append the digits to
+	 */
+	private static void appendDecimal(long[] x, int pad, StringBuilder sb) {
+		if (x.length <= SMALL_LIMBS) {
+			appendDecimalSmall(x, pad, sb);
+			return;
+		}
+		long bits = LimbArithmetic.bitLength(x, x.length);
+		int k = 0;
+		while (2 * LimbArithmetic.bitLength(power(k + 1), power(k + 1).length) <= bits) {
+			k++;
+		}
+		int lowDigits = CHUNK_DIGITS << k;
+		long[][] qr = LimbDivision.divideAndRemainder(x, power(k));
+		appendDecimal(qr[0], (pad == 0) ? 0 : pad - lowDigits, sb);
+		appendDecimal(qr[1], lowDigits, sb);
+	}
+
+
+	/**
+	 * This method is to render a small number into decimal digits by dividing it by 10^9 again and again, 9 digits at a time.
+	 * Every limb is divided as two 32-bit halves, so every step fits in a long.
+	 * @param x the trimmed limbs of the number
+	 * @param pad the exact number of digits to render, with leading zeros, or 0 for no leading zeros
+	 * @param sb the string builder to append the digits to
+	 */
+	private static void appendDecimalSmall(long[] x, int pad, StringBuilder sb) {
+		long[] w = x.clone();
+		int len = w.length;
+		char[] chars = new char[(int) (LimbArithmetic.bitLength(x, len) / 29 + 1) * SHORT_DIGITS];   // 10^9 takes more than 29 bits off every time
+		int pos = chars.length;
+		while (len > 0) {
+			long rest = 0;
+			for (int i = len - 1; i >= 0; i--) {
+				long high = (rest << 32) | (w[i] >>> 32);    // rest is below 10^9 < 2^30, so this fits
+				long q1 = high / SHORT_DIVISOR;
+				rest = high % SHORT_DIVISOR;
+				long low = (rest << 32) | (w[i] & MASK);
+				long q0 = low / SHORT_DIVISOR;
+				rest = low % SHORT_DIVISOR;
+				w[i] = (q1 << 32) | q0;
+			}
+			len = LimbArithmetic.normalize(w, len);
+			for (int d = 0; d < SHORT_DIGITS; d++) {    // a full chunk of 9 digits, leading zeros included
+				chars[--pos] = (char) ('0' + rest % 10);
+				rest /= 10;
+			}
+		}
+		while (pos < chars.length && chars[pos] == '0') {    // the leading zeros of the top chunk
+			pos++;
+		}
+		int digits = chars.length - pos;
+		if (pad == 0 && digits == 0) {    // the number zero is still rendered as a single digit
+			sb.append('0');
+			return;
+		}
+		for (int i = digits; i < pad; i++) {
+			sb.append('0');
+		}
+		sb.append(chars, pos, digits);
+	}
+}
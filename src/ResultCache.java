@@ -0,0 +1,260 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Objects;
+
+/**
+ * The ResultCache class keeps the results of recent calculations so that a repeated (op, X, Y) is served without calculating it again.
+ * The operands are BigBinary values, so leading zeros are already gone and "0011 + 1" hits the entry of "11 + 1".
+ * The cache is bounded by the total number of bits it holds (the operands and the result of every entry) rather than by the number of entries,
+ * and evicts the least recently used entries first. Both orders of a commutative operation share one entry, and so do X - Y and Y - X:
+ * the operands are compared to put the bigger number first, the difference is stored for that order, and the other order gets it with the opposite sign.
+ * On a miss, the subtraction compares the magnitudes again on its own (as BigBinary.subtract always does); both comparisons stop at the highest limb
+ * that differs, and the subtraction only works below it, so the comparisons together cost no more than reading the limbs once more.
+ * The cache can be shared between threads. It is split into segments by the hash of the calculation, each one an LRU map with its own lock
+ * and an equal share of the bits, so threads looking up different calculations mostly take different locks instead of all queueing for one
+ * (a lookup has to lock, as it moves the entry to the most recently used end). There are about twice as many segments as processors,
+ * so the least recently used entry is evicted within a segment rather than across the whole cache, and a single result can only be cached
+ * if it fits in the share of one segment. A calculation is carried out outside of any lock, so a slow one does not hold up the others.
+ *
+ * @author Yuxin Xiang
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public final class ResultCache {
+	private static final int MAX_SEGMENTS = 64;
+
+	private final Segment[] segments;
+	private final int mask;    // segments.length - 1, as the number of segments is a power of two
+
+
+	/**
+	 * The constructor of the ResultCache class with the most bits the entries can hold together.
+	 * @param maxBits the most bits to hold, 0 to keep nothing
+	 */
+	public ResultCache(long maxBits) {
+		if (maxBits < 0) {
+			throw new IllegalArgumentException("The cache size must not be negative.");
+		}
+		int count = Math.min(Integer.highestOneBit(Math.max(2 * Runtime.getRuntime().availableProcessors() - 1, 1)) << 1, MAX_SEGMENTS);
+		this.segments = new Segment[count];
+		this.mask = count - 1;
+		for (int i = 0; i < count; i++) {
+			segments[i] = new Segment(maxBits / count + (i < maxBits % count ? 1 : 0));   // the shares add up to maxBits
+		}
+	}
+
+
+	/**
+	 * This method is to carry out an operation, taking the result from the cache if the same calculation was done before.
+	 * A calculation that fails (e.g., a division by zero) is not cached.
+	 * @param op the operation
+	 * @param x the binary number X
+	 * @param y the binary number Y, ignored by a unary operation (it might be null)
+	 * @return the result of X op Y, or of op X for a unary operation
+	 * @throws ArithmeticException if the operation cannot be carried out
+	 */
+	public BigBinary apply(Operation op, BigBinary x, BigBinary y) {
+		if (op.isUnary()) {
+			y = null;
+		}
+		boolean swapped = false;
+		if (y != null && (op.isCommutative() || op == Operation.SUBTRACT) && x.compare(y) < 0) {   // to put the bigger number first, not counted as a comparison
+			BigBinary tmp = x; x = y; y = tmp;
+			swapped = true;
+		}
+		boolean negate = swapped && op == Operation.SUBTRACT;    // Y - X is -(X - Y)
+
+		Key key = new Key(op, x, y);
+		Segment segment = segments[(key.hash ^ (key.hash >>> 16)) & mask];    // the high bits of the hash are mixed into the low ones
+		BigBinary cached = segment.get(key);
+		if (cached != null) {
+			return negate ? cached.negate() : cached;
+		}
+		BigBinary result = op.apply(x, y);
+		segment.store(key, result);
+		return negate ? result.negate() : result;
+	}
+
+
+	/**
+	 * This method is to get the number of calculations served from the cache.
+	 * @return the number of hits
+	 */
+	public long hits() {
+		long hits = 0;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				hits += segment.hits;
+			}
+		}
+		return hits;
+	}
+
+
+	/**
+	 * This method is to get the number of calculations that had to be carried out.
+	 * @return the number of misses
+	 */
+	public long misses() {
+		long misses = 0;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				misses += segment.misses;
+			}
+		}
+		return misses;
+	}
+
+
+	/**
+	 * This method is to get the number of entries dropped to keep the cache within its size.
+	 * @return the number of evictions
+	 */
+	public long evictions() {
+		long evictions = 0;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				evictions += segment.evictions;
+			}
+		}
+		return evictions;
+	}
+
+
+	/**
+	 * This method is to get the number of entries in the cache.
+	 * @return the number of entries
+	 */
+	public int size() {
+		int size = 0;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				size += segment.entries.size();
+			}
+		}
+		return size;
+	}
+
+
+	/**
+	 * This method is to get the total number of bits held by the entries.
+	 * @return the number of bits
+	 */
+	public long bits() {
+		long bits = 0;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				bits += segment.bits;
+			}
+		}
+		return bits;
+	}
+
+
+	@Override
+	public String toString() {
+		return String.format("Cache: %d hits, %d misses, %d evictions, %d entries, %d bits", hits(), misses(), evictions(), size(), bits());
+	}
+
+
+	/**
+	 * The Segment class is a part of the cache with its own lock, its own share of the bits and its own order of use.
+	 */
+	private static final class Segment {
+		final long maxBits;
+		final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);   // in access order, least recently used first
+		long bits;         // the total number of bits held by the entries
+		long hits, misses, evictions;
+
+
+		Segment(long maxBits) {
+			this.maxBits = maxBits;
+		}
+
+
+		/**
+		 * This method is to look up a calculation, counting the hit or the miss.
+		 * @param key the calculation
+		 * @return the cached result, or null if it is not in the segment
+		 */
+		synchronized BigBinary get(Key key) {
+			Entry entry = entries.get(key);
+			if (entry == null) {
+				misses++;
+				return null;
+			}
+			hits++;
+			return entry.result;
+		}
+
+
+		/**
+		 * This method is to add a result to the segment and evict the least recently used entries until the segment is back within its share.
+		 * @param key the calculation
+		 * @param result the result of the calculation
+		 */
+		synchronized void store(Key key, BigBinary result) {
+			long size = key.x.bitLength() + (key.y == null ? 0 : key.y.bitLength()) + result.bitLength();
+			if (size > maxBits) {    // it would evict everything else and still not fit
+				return;
+			}
+			Entry previous = entries.put(key, new Entry(result, size));
+			bits += size - (previous == null ? 0 : previous.bits);   // another thread might have stored the same calculation in the meantime
+			Iterator<Entry> eldest = entries.values().iterator();
+			while (bits > maxBits) {
+				bits -= eldest.next().bits;
+				eldest.remove();
+				evictions++;
+			}
+		}
+	}
+
+
+	/**
+	 * The Key class identifies a calculation, with the hash of the operands worked out once.
+	 */
+	private static final class Key {
+		final Operation op;
+		final BigBinary x, y;
+		private final int hash;
+
+
+		Key(Operation op, BigBinary x, BigBinary y) {
+			this.op = op;
+			this.x = x;
+			this.y = y;
+			this.hash = (31 * op.ordinal() + x.hashCode()) * 31 + Objects.hashCode(y);
+		}
+
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return op == other.op && hash == other.hash && x.equals(other.x) && Objects.equals(y, other.y);
+		}
+
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+
+
+	/**
+	 * The Entry class is a cached result together with the number of bits the entry holds.
+	 */
+	private static final class Entry {
+		final BigBinary result;
+		final long bits;
+
+
+		Entry(BigBinary result, long bits) {
+			this.result = result;
+			this.bits = bits;
+		}
+	}
+}
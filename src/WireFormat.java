@@ -0,0 +1,192 @@
+import java.net.ProtocolException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * The WireFormat class reads and writes the frames of the binary protocol spoken by CalculationServer. Every number is little-endian.
+ * A request is the frame length (int, the number of bytes after it), the opcode (byte, the first character of the symbol, e.g., '+' or '<' for "<<"),
+ * then the operand X and, unless the operation is unary, the operand Y.
+ * An operand is its sign (byte, 1 if it is negative), its number of limbs n (int), then its n limbs (long, lowest limb first),
+ * which are the same words BigBinary holds, so no digit is converted on either side.
+ * A response is the frame length (int), the status (byte, OK or ERROR), then the result as an operand, or the error message in UTF-8.
+ * The buffers passed to the methods must be in little-endian order.
+ *
+ * @author Yuxin Xiang
+ * @version 1.0
+ * @since 18/10/2026
+ */
+public final class WireFormat {
+	static final int LENGTH_BYTES = Integer.BYTES;      // the frame length in front of every frame
+	static final int MAX_FRAME_BYTES = 1 << 28;         // the longest frame taken, so a bad length cannot make the server allocate gigabytes
+	static final int MAX_LIMBS = (MAX_FRAME_BYTES - 16) / Long.BYTES;   // the most limbs a result can have to fit in a frame
+	static final byte OK = 0;
+	static final byte ERROR = 1;
+
+	private static final Operation[] OPCODES = new Operation[128];   // by the opcode, null if it is not an operation
+
+	static {
+		for (Operation op : Operation.values()) {
+			OPCODES[op.symbol().charAt(0)] = op;    // the symbols start with different characters
+		}
+	}
+
+
+	private WireFormat() {
+	}
+
+
+	/**
+	 * This method is to get the opcode of an operation.
+	 * @param op the operation
+	 * @return the first character of its symbol
+	 */
+	static byte opcode(Operation op) {
+		return (byte) op.symbol().charAt(0);
+	}
+
+
+	/**
+	 * This method is to find the operation of an opcode.
+	 * @param opcode the opcode read from a request
+	 * @return the operation, or null if the opcode is not a valid operation
+	 */
+	static Operation operation(byte opcode) {
+		return (opcode >= 0) ? OPCODES[opcode] : null;
+	}
+
+
+	/**
+	 * This method is to get the number of bytes an operand takes in a frame.
+	 * @param x the binary number
+	 * @return the bytes of the sign, the number of limbs and the limbs
+	 */
+	static int operandBytes(BigBinary x) {
+		return 1 + Integer.BYTES + x.limbCount() * Long.BYTES;
+	}
+
+
+	/**
+	 * This method is to get the number of bytes a whole request takes, frame length included.
+	 * @param op the operation
+	 * @param x the binary number X
+	 * @param y the binary number Y, ignored by a unary operation
+	 * @return the bytes of the request
+	 */
+	static int requestBytes(Operation op, BigBinary x, BigBinary y) {
+		return LENGTH_BYTES + 1 + operandBytes(x) + (op.isUnary() ? 0 : operandBytes(y));
+	}
+
+
+	/**
+	 * This method is to write a whole request.
+	 * @param buffer the buffer to write to, with room for requestBytes(op, x, y)
+	 * @param op the operation
+	 * @param x the binary number X
+	 * @param y the binary number Y, ignored by a unary operation
+	 */
+	static void putRequest(ByteBuffer buffer, Operation op, BigBinary x, BigBinary y) {
+		buffer.putInt(requestBytes(op, x, y) - LENGTH_BYTES);
+		buffer.put(opcode(op));
+		putOperand(buffer, x);
+		if (!op.isUnary()) {
+			putOperand(buffer, y);
+		}
+	}
+
+
+	/**
+	 * This method is to get the number of bytes a whole response with a result takes, frame length included.
+	 * @param result the result
+	 * @return the bytes of the response
+	 */
+	static int resultBytes(BigBinary result) {
+		return LENGTH_BYTES + 1 + operandBytes(result);
+	}
+
+
+	/**
+	 * This method is to write a whole response with a result.
+	 * @param buffer the buffer to write to, with room for resultBytes(result)
+	 * @param result the result
+	 */
+	static void putResult(ByteBuffer buffer, BigBinary result) {
+		buffer.putInt(resultBytes(result) - LENGTH_BYTES);
+		buffer.put(OK);
+		putOperand(buffer, result);
+	}
+
+
+	/**
+	 * This method is to write a whole response with an error message.
+	 * @param buffer the buffer to write to, with room for LENGTH_BYTES + 1 + message.length
+	 * @param message the error message in UTF-8
+	 */
+	static void putError(ByteBuffer buffer, byte[] message) {
+		buffer.putInt(1 + message.length);
+		buffer.put(ERROR);
+		buffer.put(message);
+	}
+
+
+	/**
+	 * This method is to write an operand.
+	 * @param buffer the buffer to write to, with room for operandBytes(x)
+	 * @param x the binary number
+	 */
+	static void putOperand(ByteBuffer buffer, BigBinary x) {
+		long[] words = x.limbs();
+		int length = x.limbCount();
+		buffer.put((byte) (x.signum() < 0 ? 1 : 0));
+		buffer.putInt(length);
+		for (int i = 0; i < length; i++) {
+			buffer.putLong(words[i]);
+		}
+	}
+
+
+	/**
+	 * This method is to read an operand. Zero limbs at the top are allowed and dropped.
+	 * @param buffer the buffer to read from, limited to the end of the frame
+	 * @return the binary number
+	 * @throws ProtocolException if the frame ends before the operand does
+	 */
+	static BigBinary getOperand(ByteBuffer buffer) throws ProtocolException {
+		if (buffer.remaining() < 1 + Integer.BYTES) {
+			throw new ProtocolException("Invalid frame.");
+		}
+		byte sign = buffer.get();
+		int length = buffer.getInt();
+		if (sign < 0 || sign > 1 || length < 0 || length > buffer.remaining() / Long.BYTES) {
+			throw new ProtocolException("Invalid frame.");
+		}
+		long[] words = new long[length];
+		for (int i = 0; i < length; i++) {
+			words[i] = buffer.getLong();
+		}
+		return new BigBinary(words, LimbArithmetic.normalize(words, length), sign == 1);
+	}
+
+
+	/**
+	 * This method is to read the body of a response, i.e., what comes after its frame length.
+	 * @param buffer the buffer to read from, limited to the end of the frame
+	 * @return the result
+	 * @throws ArithmeticException with the message of the server if it could not carry out the request
+	 * @throws ProtocolException if the response is not a valid frame
+	 */
+	static BigBinary getResponse(ByteBuffer buffer) throws ProtocolException {
+		if (!buffer.hasRemaining()) {
+			throw new ProtocolException("Invalid frame.");
+		}
+		byte status = buffer.get();
+		if (status == ERROR) {
+			byte[] message = new byte[buffer.remaining()];
+			buffer.get(message);
+			throw new ArithmeticException(new String(message, StandardCharsets.UTF_8));
+		}
+		if (status != OK) {
+			throw new ProtocolException("Invalid frame.");
+		}
+		return getOperand(buffer);
+	}
+}